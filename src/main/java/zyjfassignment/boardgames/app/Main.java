@@ -6,6 +6,8 @@ import zyjfassignment.boardgames.core.Player;
 import zyjfassignment.boardgames.core.strategy.EasyStrategy;
 import zyjfassignment.boardgames.core.strategy.EdgeChoiceStrategy;
 import zyjfassignment.boardgames.core.strategy.HardStrategy;
+import zyjfassignment.boardgames.core.strategy.MctsStrategy;
+import zyjfassignment.boardgames.core.strategy.SolverStrategy;
 import zyjfassignment.boardgames.dots.DotsBoard;
 import zyjfassignment.boardgames.dots.DotsGame;
 import zyjfassignment.boardgames.sliding.SlidingBoard;
@@ -44,7 +46,14 @@ public class Main {
         if (game == 3) {
             System.out.print("Enter number of players (2–4): ");
             int numPlayers = readInt(in, 2);
-            QuoridorBoard board = new QuoridorBoard(numPlayers);   // 9x9 默认棋盘
+            System.out.print("Board size N for an N x N board (" + QuoridorBoard.MIN_SIZE + "–"
+                    + QuoridorBoard.MAX_SIZE + ", default " + QuoridorBoard.DEFAULT_SIZE + "): ");
+            int size = readInt(in, QuoridorBoard.DEFAULT_SIZE);
+            while (size < QuoridorBoard.MIN_SIZE || size > QuoridorBoard.MAX_SIZE) {
+                System.out.print("Please enter a size between " + QuoridorBoard.MIN_SIZE + " and " + QuoridorBoard.MAX_SIZE + ": ");
+                size = readInt(in, QuoridorBoard.DEFAULT_SIZE);
+            }
+            QuoridorBoard board = new QuoridorBoard(numPlayers, size);   // 默认 9x9 棋盘
             GameEngine g = new QuoridorGame(board);      // 玩家/墙的交互在 QuoridorGame 内部处理
             g.playLoop(in);
             return;
@@ -67,7 +76,7 @@ public class Main {
         String name2 = in.nextLine().trim();
         if (name2.isEmpty()) name2 = "Player2";
 
-        System.out.println("Mode: 1) Human vs Human  2) Human vs AI (Easy)  3) Human vs AI (Hard)");
+        System.out.println("Mode: 1) Human vs Human  2) Human vs AI (Easy)  3) Human vs AI (Hard)  4) Human vs AI (Expert)  5) Human vs AI (MCTS)");
         int mode = readInt(in, 1);
 
         Player p1 = new Player(name1, 1, true);
@@ -76,7 +85,9 @@ public class Main {
         if (mode == 1) {
             p2 = new Player(name2, 2, true);
         } else {
-            EdgeChoiceStrategy strat = (mode == 2) ? new EasyStrategy() : new HardStrategy();
+            EdgeChoiceStrategy strat = (mode == 2) ? new EasyStrategy()
+                    : (mode == 4) ? new SolverStrategy()
+                    : (mode == 5) ? new MctsStrategy() : new HardStrategy();
             p2 = new Bot(name2.isEmpty() ? "AI" : name2, 2, strat);
         }
 
@@ -0,0 +1,39 @@
+package zyjfassignment.boardgames.bench;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Tiny timing harness for the benchmark entry points in this package.
+ * Each task returns a checksum so the JIT cannot drop the measured work.
+ */
+final class Bench {
+    private Bench() {}
+
+    /**
+     * Warm the task up, then run it repeatedly for roughly the given time.
+     * @return measured operations per second, where one call of task = opsPerCall operations
+     */
+    static double measure(String label, long opsPerCall, long millis, LongSupplier task) {
+        long sink = 0;
+        long warmEnd = System.nanoTime() + millis * 1_000_000L / 2;
+        while (System.nanoTime() < warmEnd) sink += task.getAsLong();
+
+        long calls = 0;
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000L;
+        long now;
+        do {
+            sink += task.getAsLong();
+            calls++;
+            now = System.nanoTime();
+        } while (now < end);
+        double opsPerSec = calls * (double) opsPerCall / ((now - start) / 1e9);
+        System.out.printf("%-40s %,16.0f ops/s   (checksum %d)%n", label, opsPerSec, sink);
+        return opsPerSec;
+    }
+
+    /** Print the ratio between a baseline and an optimized measurement. */
+    static void speedup(double baseline, double optimized) {
+        System.out.printf("%-40s %16.2fx%n", "speedup", optimized / baseline);
+    }
+}
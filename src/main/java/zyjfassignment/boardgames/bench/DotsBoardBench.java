@@ -0,0 +1,179 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.core.strategy.HardStrategy;
+import zyjfassignment.boardgames.dots.DotsBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * DotsBoard throughput: the original Edge-object board against the bitset
+ * board on 20x20 and 30x30 dot grids. One call plays a whole seeded random
+ * game; before every move it asks isFinishingMove and wouldCreateThirdEdge
+ * for each free edge, the way HardStrategy scans the board. A second table
+ * plays HardStrategy against itself with the old List-based decision code
+ * (getAvailableEdgeIds up to four times per move, a full scan for isFull)
+ * and with the current one (primitive free-edge iteration, running counters).
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.DotsBoardBench [millis]
+ */
+public class DotsBoardBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        for (int n : new int[]{20, 30}) {
+            int edges = 2 * n * (n - 1);
+            int[] order = shuffledEdges(edges, 42);
+            System.out.println("Dots & Boxes random game with full scans, " + n + "x" + n + " dots, " + edges + " edges");
+            LegacyBoard l = new LegacyBoard(n, n);
+            DotsBoard d = new DotsBoard(n, n);
+            long expected = play(order, l::isFinishingMove, l::wouldCreateThirdEdge, l::claimEdge);
+            long actual = play(order, d::isFinishingMove, d::wouldCreateThirdEdge, d::claimEdge);
+            if (expected != actual || d.scoreForPlayer(1) + d.scoreForPlayer(2) != (n - 1) * (n - 1)) {
+                throw new IllegalStateException("boards disagree: " + expected + " vs " + actual);
+            }
+            double before = Bench.measure("legacy Edge[] + ArrayList", edges, millis, () -> {
+                LegacyBoard b = new LegacyBoard(n, n);
+                return play(order, b::isFinishingMove, b::wouldCreateThirdEdge, b::claimEdge);
+            });
+            double after = Bench.measure("bitset + shared tables", edges, millis, () -> {
+                DotsBoard b = new DotsBoard(n, n);
+                return play(order, b::isFinishingMove, b::wouldCreateThirdEdge, b::claimEdge);
+            });
+            Bench.speedup(before, after);
+
+            HardStrategy hard = new HardStrategy();
+            double listApi = Bench.measure("HardStrategy, List API + scans", edges, millis, () ->
+                    selfPlay(new DotsBoard(n, n), DotsBoardBench::legacyHardChoice, true));
+            double primitive = Bench.measure("HardStrategy, free-edge set", edges, millis, () ->
+                    selfPlay(new DotsBoard(n, n), hard::choose, false));
+            Bench.speedup(listApi, primitive);
+        }
+    }
+
+    interface Chooser { int choose(DotsBoard board, int selfId); }
+
+    /** One game of a strategy against itself; legacyScans stands in a full edge scan for isFull(). @return checksum */
+    private static long selfPlay(DotsBoard board, Chooser chooser, boolean legacyScans) {
+        int player = 1;
+        while (legacyScans ? !board.getAvailableEdgeIds().isEmpty() : !board.isFull()) {
+            int made = board.claimEdge(chooser.choose(board, player), player);
+            if (made == 0) player = 3 - player;
+        }
+        return board.scoreForPlayer(1);
+    }
+
+    /** HardStrategy.choose as it was before the free-edge set. */
+    private static int legacyHardChoice(DotsBoard board, int selfId) {
+        for (int id : board.getAvailableEdgeIds()) if (board.isFinishingMove(id)) return id;
+        for (int id : board.getAvailableEdgeIds()) if (!board.wouldCreateThirdEdge(id)) return id;
+        return board.getAvailableEdgeIds().isEmpty() ? -1 : board.getAvailableEdgeIds().get(0);
+    }
+
+    interface EdgeTest { boolean test(int edge); }
+    interface Claim { int claim(int edge, int player); }
+
+    /** Play edges in the given order; before each move scan the remaining ones. @return checksum */
+    private static long play(int[] order, EdgeTest finishing, EdgeTest third, Claim claim) {
+        long sum = 0;
+        int player = 1;
+        for (int i = 0; i < order.length; i++) {
+            for (int j = i; j < order.length; j++) {
+                if (finishing.test(order[j])) sum++;
+                else if (third.test(order[j])) sum += 2;
+            }
+            int made = claim.claim(order[i], player);
+            sum += made;
+            if (made == 0) player = 3 - player;
+        }
+        return sum;
+    }
+
+    private static int[] shuffledEdges(int n, long seed) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        SplittableRandom rng = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+
+    /** The pre-bitset DotsBoard storage and checks, kept as the baseline. */
+    private static final class LegacyBoard {
+        private final int R, C, H, V;
+        private final Edge[] edges;
+        private final int[][] boxOwner;
+
+        LegacyBoard(int rows, int cols) {
+            R = rows;
+            C = cols;
+            H = R * (C - 1);
+            V = (R - 1) * C;
+            edges = new Edge[H + V];
+            int id = 0;
+            for (int r = 0; r < R; r++) for (int c = 0; c < C - 1; c++) edges[id++] = new Edge();
+            for (int r = 0; r < R - 1; r++) for (int c = 0; c < C; c++) edges[id++] = new Edge();
+            boxOwner = new int[R - 1][C - 1];
+        }
+
+        boolean isFinishingMove(int edgeId) {
+            int made = 0;
+            for (int[] b : boxesTouchedByEdge(edgeId)) if (edgesClaimedCountForBox(b[0], b[1]) == 3) made++;
+            return made > 0;
+        }
+
+        boolean wouldCreateThirdEdge(int edgeId) {
+            for (int[] b : boxesTouchedByEdge(edgeId)) if (edgesClaimedCountForBox(b[0], b[1]) == 2) return true;
+            return false;
+        }
+
+        int claimEdge(int edgeId, int playerId) {
+            Edge e = edges[edgeId];
+            if (e.owner != 0) return -1;
+            e.owner = playerId;
+            int made = 0;
+            for (int[] b : boxesTouchedByEdge(edgeId)) {
+                if (edgesClaimedCountForBox(b[0], b[1]) == 4 && boxOwner[b[0]][b[1]] == 0) {
+                    boxOwner[b[0]][b[1]] = playerId;
+                    made++;
+                }
+            }
+            return made;
+        }
+
+        private int hEdgeId(int r, int c) { return r * (C - 1) + c; }
+        private int vEdgeId(int r, int c) { return H + r * C + c; }
+
+        private List<int[]> boxesTouchedByEdge(int edgeId) {
+            List<int[]> res = new ArrayList<>();
+            if (edgeId < H) {
+                int r = edgeId / (C - 1), c = edgeId % (C - 1);
+                if (r > 0) res.add(new int[]{r - 1, c});
+                if (r < R - 1) res.add(new int[]{r, c});
+            } else {
+                int local = edgeId - H;
+                int r = local / C, c = local % C;
+                if (c > 0) res.add(new int[]{r, c - 1});
+                if (c < C - 1) res.add(new int[]{r, c});
+            }
+            return res;
+        }
+
+        private int edgesClaimedCountForBox(int br, int bc) {
+            int cnt = 0;
+            if (edges[hEdgeId(br, bc)].owner != 0) cnt++;
+            if (edges[hEdgeId(br + 1, bc)].owner != 0) cnt++;
+            if (edges[vEdgeId(br, bc)].owner != 0) cnt++;
+            if (edges[vEdgeId(br, bc + 1)].owner != 0) cnt++;
+            return cnt;
+        }
+
+        private static final class Edge {
+            int owner;
+        }
+    }
+}
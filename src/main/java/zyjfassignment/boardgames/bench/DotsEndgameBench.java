@@ -0,0 +1,73 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.core.strategy.SolverStrategy;
+import zyjfassignment.boardgames.dots.DotsBoard;
+import zyjfassignment.boardgames.dots.NimstringEndgame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Loony Dots &amp; Boxes endgames (random safe moves until none is left, then
+ * random moves, taking every box, until only chains and loops remain):
+ * exact solves by SolverStrategy's search alone vs with NimstringEndgame at
+ * its nodes on 5x5 dots, then NimstringEndgame decisions per second on
+ * boards the search cannot finish (values memoised across games).
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.DotsEndgameBench [millis] [positions=20]
+ */
+public class DotsEndgameBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int positions = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        DotsBoard[] small = new DotsBoard[positions];
+        for (int i = 0; i < positions; i++) small[i] = loony(5, 5, i);
+        System.out.println("Exact value of " + positions + " loony endgames, 5x5 dots");
+        double before = Bench.measure("alpha-beta search", positions, millis,
+                () -> solveAll(small, new SolverStrategy(1000, 16, true, false)));
+        double after = Bench.measure("alpha-beta + endgame values", positions, millis,
+                () -> solveAll(small, new SolverStrategy(1000, 16, true, true)));
+        Bench.speedup(before, after);
+
+        NimstringEndgame endgame = new NimstringEndgame();
+        for (int n : new int[]{8, 15, 30}) {
+            DotsBoard[] boards = new DotsBoard[positions];
+            for (int i = 0; i < positions; i++) boards[i] = loony(n, n, i);
+            System.out.println();
+            System.out.println("NimstringEndgame on " + positions + " loony endgames, " + n + "x" + n + " dots");
+            Bench.measure("value + best move", positions, millis, () -> {
+                long sum = 0;
+                for (DotsBoard b : boards) sum += endgame.value(b) + endgame.bestMove(b);
+                return sum;
+            });
+        }
+        System.out.println("memoised component sets: " + NimstringEndgame.cacheSize());
+    }
+
+    private static long solveAll(DotsBoard[] boards, SolverStrategy solver) {
+        long sum = 0;
+        for (DotsBoard b : boards) sum += solver.solve(b);
+        return sum;
+    }
+
+    private static DotsBoard loony(int rows, int cols, long seed) {
+        DotsBoard board = new DotsBoard(rows, cols);
+        SplittableRandom rng = new SplittableRandom(seed);
+        int player = 1;
+        while (board.safeMoveCount() > 0) {
+            int edge;
+            do edge = board.availableEdgeAt(rng.nextInt(board.availableEdgeCount()));
+            while (!board.isSafeMove(edge));
+            if (board.claimEdge(edge, player) == 0) player = 3 - player;
+        }
+        NimstringEndgame endgame = new NimstringEndgame();
+        while (endgame.value(board) == NimstringEndgame.NOT_LOONY) {
+            int edge = board.availableEdgeAt(rng.nextInt(board.availableEdgeCount()));
+            for (int i = 0; i < board.availableEdgeCount(); i++) {
+                if (board.isFinishingMove(board.availableEdgeAt(i))) edge = board.availableEdgeAt(i);
+            }
+            if (board.claimEdge(edge, player) == 0) player = 3 - player;
+        }
+        return board;
+    }
+}
@@ -0,0 +1,47 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.core.strategy.MctsStrategy;
+import zyjfassignment.boardgames.dots.DotsBoard;
+
+/**
+ * MctsStrategy (Dots & Boxes) thread scaling: playouts/s and tree nodes/s
+ * from the empty board for 1, 2, 4, ... workers up to the number of
+ * processors. Each row is the median of several fresh decisions.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.DotsMctsScalingBench [millisPerMove] [maxThreads] [dots=15]
+ */
+public class DotsMctsScalingBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int dots = args.length > 2 ? Integer.parseInt(args[2]) : 15;
+        int rounds = 5;
+
+        DotsBoard board = new DotsBoard(dots, dots);
+        try (MctsStrategy warmUp = new MctsStrategy(2 * millis, 1)) {   // warm-up (JIT)
+            warmUp.choose(board, 1);
+        }
+
+        System.out.printf("Dots MCTS from the empty %dx%d board, %d ms per decision, %d processors%n",
+                dots, dots, millis, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %16s %16s %10s%n", "threads", "playouts/s", "nodes/s", "scaling");
+        double single = 0;
+        for (int t = 1; t <= maxThreads; t = t < maxThreads && 2 * t > maxThreads ? maxThreads : 2 * t) {
+            double[] playouts = new double[rounds];
+            double[] nodes = new double[rounds];
+            for (int r = 0; r < rounds; r++) {
+                try (MctsStrategy mcts = new MctsStrategy(millis, t)) {
+                    mcts.choose(board, 1);
+                    playouts[r] = mcts.lastPlayoutsPerSecond();
+                    nodes[r] = mcts.lastNodesPerSecond();
+                }
+            }
+            java.util.Arrays.sort(playouts);
+            java.util.Arrays.sort(nodes);
+            double p = playouts[rounds / 2];
+            if (t == 1) single = p;
+            System.out.printf("%-8d %,16.0f %,16.0f %9.2fx%n", t, p, nodes[rounds / 2], p / single);
+            if (t == maxThreads) break;
+        }
+    }
+}
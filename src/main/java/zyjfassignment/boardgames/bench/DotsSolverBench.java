@@ -0,0 +1,59 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.core.strategy.SolverStrategy;
+import zyjfassignment.boardgames.dots.DotsBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * SolverStrategy on small Dots & Boxes boards: exact solves from the empty
+ * board with and without symmetry canonicalization (4x4 dots only with it,
+ * without it takes minutes), then middle-game positions of a 4x5-box board
+ * (5x6 dots) with a given number of free edges. Reports game value, time,
+ * nodes and solved positions per second and the transposition table hit rate.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.DotsSolverBench [freeEdges=28] [positions=5]
+ */
+public class DotsSolverBench {
+    public static void main(String[] args) {
+        int free = args.length > 0 ? Integer.parseInt(args[0]) : 28;
+        int positions = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("Exact solve from the empty board (value: net boxes for the first player)");
+        for (int[] size : new int[][]{{3, 3}, {3, 4}, {3, 5}, {4, 4}}) {
+            String label = size[0] + "x" + size[1] + " dots";
+            if (size[0] * size[1] < 16) solve(label, new DotsBoard(size[0], size[1]), false);
+            solve(label + " sym", new DotsBoard(size[0], size[1]), true);
+        }
+
+        System.out.println();
+        System.out.println("5x6 dots, " + free + " free edges");
+        for (int p = 0; p < positions; p++) solve("position " + p, middleGame(5, 6, free, p), true);
+    }
+
+    private static void solve(String label, DotsBoard board, boolean symmetry) {
+        SolverStrategy solver = new SolverStrategy(1000, 64, symmetry);
+        long start = System.nanoTime();
+        int value = solver.solve(board);
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-18s value %+3d %8.3f s   %s%n", label, value, secs, solver.lastStats());
+    }
+
+    /** Random safe moves (any move once none is safe) until free edges remain. */
+    private static DotsBoard middleGame(int rows, int cols, int free, long seed) {
+        DotsBoard board = new DotsBoard(rows, cols);
+        SplittableRandom rng = new SplittableRandom(seed);
+        int player = 1;
+        while (board.remainingEdges() > free) {
+            int edge = -1;
+            if (board.safeMoveCount() > 0) {
+                do edge = board.availableEdgeAt(rng.nextInt(board.availableEdgeCount()));
+                while (!board.isSafeMove(edge));
+            } else {
+                edge = board.availableEdgeAt(rng.nextInt(board.availableEdgeCount()));
+            }
+            if (board.claimEdge(edge, player) == 0) player = 3 - player;
+        }
+        return board;
+    }
+}
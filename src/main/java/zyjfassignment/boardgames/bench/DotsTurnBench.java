@@ -0,0 +1,116 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.core.Bot;
+import zyjfassignment.boardgames.core.strategy.EasyStrategy;
+import zyjfassignment.boardgames.core.strategy.HardStrategy;
+import zyjfassignment.boardgames.dots.DotsBoard;
+import zyjfassignment.boardgames.dots.DotsGame;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * DotsGame turn throughput in bot-vs-bot games (no printing): the old
+ * reflective turn (isFinished tried under three names, the move under a list
+ * of names, the bot through getMethod / getDeclaredField / setAccessible)
+ * against the typed path (Bot.chooseEdge, DotsGame.playTurn). The old name
+ * list never matched a DotsBoard method, so claimEdge is appended to it here
+ * to let the legacy games finish. Easy bots keep the strategy cost small;
+ * Hard bots show a typical game.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.DotsTurnBench [millis] [dots=7]
+ */
+public class DotsTurnBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int turns = 2 * n * (n - 1);   // one claimed edge per turn
+        System.out.println("Bot-vs-bot turns per second, " + n + "x" + n + " dots");
+        for (String level : new String[]{"easy", "hard"}) {
+            double before = Bench.measure(level + " bots, reflective turn", turns, millis, () -> legacyGame(n, level));
+            double after = Bench.measure(level + " bots, typed turn", turns, millis, () -> typedGame(n, level));
+            Bench.speedup(before, after);
+        }
+    }
+
+    private static Bot bot(String level, int id) {
+        return new Bot("bot" + id, id, level.equals("easy") ? new EasyStrategy() : new HardStrategy());
+    }
+
+    /** @return checksum */
+    private static long typedGame(int n, String level) {
+        DotsBoard board = new DotsBoard(n, n);
+        DotsGame game = new DotsGame(board, bot(level, 1), bot(level, 2));
+        while (!game.isOver()) {
+            Bot cur = (Bot) game.currentPlayer();
+            if (game.playTurn(cur.chooseEdge(board)) < 0) throw new IllegalStateException("illegal bot move");
+        }
+        return board.scoreForPlayer(1);
+    }
+
+    /** The turn loop as it was, minus printing. @return checksum */
+    private static long legacyGame(int n, String level) {
+        DotsBoard board = new DotsBoard(n, n);
+        Bot[] bots = {bot(level, 1), bot(level, 2)};
+        int cur = 0;
+        while (!isFinished(board) && !board.isFull()) {
+            int idx = botChoose(bots[cur], board);
+            int made = applyMoveIndex(board, idx, cur + 1);
+            if (made < 0) throw new IllegalStateException("illegal bot move");
+            if (made == 0) cur = 1 - cur;
+        }
+        return board.scoreForPlayer(1);
+    }
+
+    private static boolean isFinished(Object obj) {
+        String[] names = new String[]{"isFinished", "isComplete", "isGameOver"};
+        for (int i = 0; i < names.length; i++) {
+            try {
+                Method m = obj.getClass().getMethod(names[i]);
+                Object r = m.invoke(obj);
+                if (r instanceof Boolean) return ((Boolean) r).booleanValue();
+            } catch (Exception ignore) { }
+        }
+        return false;
+    }
+
+    /** Old name list, plus claimEdge(int, int) at the end. @return boxes made, -1 if illegal */
+    private static int applyMoveIndex(Object obj, int idx, int playerId) {
+        String[] names = new String[]{"applyMove", "drawEdge", "move", "makeMove", "play"};
+        for (int i = 0; i < names.length; i++) {
+            try {
+                Method m = obj.getClass().getMethod(names[i], int.class);
+                m.invoke(obj, idx);
+                return 0;
+            } catch (Exception ignore) { }
+        }
+        try {
+            Method m = obj.getClass().getMethod("claimEdge", int.class, int.class);
+            return ((Integer) m.invoke(obj, idx, playerId)).intValue();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static int botChoose(Bot bot, DotsBoard board) {
+        try {
+            Method m = bot.getClass().getMethod("chooseEdge", DotsBoard.class);
+            Object r = m.invoke(bot, board);
+            if (r instanceof Integer) return ((Integer) r).intValue();
+        } catch (Exception ignore) { }
+        try {
+            Method m = bot.getClass().getMethod("chooseEdgeIndex", DotsBoard.class);
+            Object r = m.invoke(bot, board);
+            if (r instanceof Integer) return ((Integer) r).intValue();
+        } catch (Exception ignore) { }
+        try {
+            Field f = bot.getClass().getSuperclass().getDeclaredField("id");
+            f.setAccessible(true);
+            int id = ((Integer) f.get(bot)).intValue();
+            Method m = bot.getClass().getMethod("choose", DotsBoard.class, int.class);
+            Object r = m.invoke(bot, board, id);
+            if (r instanceof Integer) return ((Integer) r).intValue();
+        } catch (Exception ignore) { }
+        return -1;
+    }
+}
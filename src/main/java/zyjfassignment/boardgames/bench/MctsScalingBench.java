@@ -0,0 +1,49 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.core.strategy.MctsQuoridorStrategy;
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+
+/**
+ * MctsQuoridorStrategy thread scaling: playouts/s and tree nodes/s from the
+ * opening position for 1, 2, 4, ... workers up to the number of processors.
+ * Each row is the median of several fresh decisions (no tree reuse).
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.MctsScalingBench [millisPerMove] [maxThreads]
+ */
+public class MctsScalingBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int rounds = 5;
+
+        QuoridorBoard board = new QuoridorBoard(2);
+        board.setRemainingWalls('A', 10);
+        board.setRemainingWalls('B', 10);
+
+        try (MctsQuoridorStrategy warmUp = new MctsQuoridorStrategy(2 * millis, 1)) {   // warm-up (JIT)
+            warmUp.chooseMove(board, 'A');
+        }
+
+        System.out.printf("MCTS from the opening, %d ms per decision, %d processors%n",
+                millis, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %16s %16s %10s%n", "threads", "playouts/s", "nodes/s", "scaling");
+        double single = 0;
+        for (int t = 1; t <= maxThreads; t = t < maxThreads && 2 * t > maxThreads ? maxThreads : 2 * t) {
+            double[] playouts = new double[rounds];
+            double[] nodes = new double[rounds];
+            for (int r = 0; r < rounds; r++) {
+                try (MctsQuoridorStrategy mcts = new MctsQuoridorStrategy(millis, t)) {
+                    mcts.chooseMove(board, 'A');
+                    playouts[r] = mcts.lastPlayoutsPerSecond();
+                    nodes[r] = mcts.lastNodesPerSecond();
+                }
+            }
+            java.util.Arrays.sort(playouts);
+            java.util.Arrays.sort(nodes);
+            double p = playouts[rounds / 2];
+            if (t == 1) single = p;
+            System.out.printf("%-8d %,16.0f %,16.0f %9.2fx%n", t, p, nodes[rounds / 2], p / single);
+            if (t == maxThreads) break;
+        }
+    }
+}
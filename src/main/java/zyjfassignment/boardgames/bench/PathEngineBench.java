@@ -0,0 +1,140 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorPathEngine;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Pawn-aware shortest path: the String-keyed BFS that HardQuoridorStrategy
+ * used (LinkedList queue, HashSet&lt;String&gt; visited, HashMap&lt;String,String&gt;
+ * predecessors) against QuoridorPathEngine. Reports throughput and the heap
+ * bytes allocated per query.
+ *
+ * The baseline expands from each dequeued cell (the old code checked steps
+ * from the pawn's own square via canMoveTo, which never searched past one ply).
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.PathEngineBench [millis]
+ */
+public class PathEngineBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        QuoridorBoard board = new QuoridorBoard(2);
+        for (int c = 0; c < 8; c++) board.placeWall('H', 3, c, 'A');
+        for (int c = 1; c < 9; c++) board.placeWall('H', 6, c, 'B');
+        board.placeWall('V', 7, 4, 'A');
+        board.move('B', 1, 4);
+
+        int queries = 2;
+        System.out.println("Quoridor shortest path + next step, players A and B");
+        double before = Bench.measure("LinkedList/HashSet<String> BFS", queries, millis, () ->
+                legacyNextStep(board, 'A')[0] + legacyLength(board, 'B'));
+        QuoridorPathEngine engine = new QuoridorPathEngine();
+        double after = Bench.measure("QuoridorPathEngine", queries, millis, () ->
+                engine.nextStep(board, 'A') + engine.shortestPath(board, 'B'));
+        Bench.speedup(before, after);
+
+        System.out.printf("%-40s %,16d bytes/query%n", "allocated, legacy",
+                allocatedPerCall(() -> legacyNextStep(board, 'A')[0] + legacyLength(board, 'B')) / queries);
+        System.out.printf("%-40s %,16d bytes/query%n", "allocated, engine",
+                allocatedPerCall(() -> engine.nextStep(board, 'A') + engine.shortestPath(board, 'B')) / queries);
+    }
+
+    /** @return heap bytes allocated by one call, averaged over many; -1 if the JVM cannot tell */
+    private static long allocatedPerCall(java.util.function.LongSupplier task) {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return -1;
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) mx;
+        long tid = Thread.currentThread().getId();
+        int calls = 10_000;
+        long sink = 0;
+        for (int i = 0; i < calls; i++) sink += task.getAsLong();
+        long before = bean.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < calls; i++) sink += task.getAsLong();
+        long after = bean.getThreadAllocatedBytes(tid);
+        if (sink == 42) System.out.print("");
+        return (after - before) / calls;
+    }
+
+    private static boolean reachedGoal(char player, int r, int c) {
+        switch (player) {
+            case 'A': return r == 0;
+            case 'B': return r == 8;
+            case 'C': return c == 8;
+            case 'D': return c == 0;
+            default: return false;
+        }
+    }
+
+    private static boolean canWalk(QuoridorBoard board, int r, int c, int nr, int nc) {
+        return board.isFree(nr, nc) && board.canStep(r, c, nr, nc);
+    }
+
+    private static int legacyLength(QuoridorBoard board, char player) {
+        int[] start = board.getPlayerPosition(player);
+        Queue<int[]> q = new LinkedList<>();
+        Set<String> visited = new HashSet<>();
+        q.add(start);
+        visited.add(start[0] + "," + start[1]);
+        int dist = 0;
+        while (!q.isEmpty()) {
+            int size = q.size();
+            for (int i = 0; i < size; i++) {
+                int[] cur = q.poll();
+                int r = cur[0], c = cur[1];
+                if (reachedGoal(player, r, c)) return dist;
+                for (int[] d : new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}) {
+                    int nr = r + d[0], nc = c + d[1];
+                    if (canWalk(board, r, c, nr, nc)) {
+                        String key = nr + "," + nc;
+                        if (!visited.contains(key)) {
+                            visited.add(key);
+                            q.add(new int[]{nr, nc});
+                        }
+                    }
+                }
+            }
+            dist++;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static int[] legacyNextStep(QuoridorBoard board, char player) {
+        int[] start = board.getPlayerPosition(player);
+        Queue<int[]> q = new LinkedList<>();
+        Map<String, String> prev = new HashMap<>();
+        Set<String> visited = new HashSet<>();
+        q.add(start);
+        visited.add(start[0] + "," + start[1]);
+        String goalKey = null;
+        while (!q.isEmpty()) {
+            int[] cur = q.poll();
+            int r = cur[0], c = cur[1];
+            if (reachedGoal(player, r, c)) {
+                goalKey = r + "," + c;
+                break;
+            }
+            for (int[] d : new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}) {
+                int nr = r + d[0], nc = c + d[1];
+                if (canWalk(board, r, c, nr, nc)) {
+                    String key = nr + "," + nc;
+                    if (!visited.contains(key)) {
+                        visited.add(key);
+                        prev.put(key, r + "," + c);
+                        q.add(new int[]{nr, nc});
+                    }
+                }
+            }
+        }
+        if (goalKey == null) return new int[]{-1, -1};
+        String curKey = goalKey;
+        String parentKey = prev.get(curKey);
+        while (parentKey != null && !parentKey.equals(start[0] + "," + start[1])) {
+            curKey = parentKey;
+            parentKey = prev.get(curKey);
+        }
+        String[] parts = curKey.split(",");
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    }
+}
@@ -0,0 +1,80 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.core.strategy.AlphaBetaQuoridorStrategy;
+import zyjfassignment.boardgames.core.strategy.HardQuoridorStrategy;
+import zyjfassignment.boardgames.core.strategy.MctsQuoridorStrategy;
+import zyjfassignment.boardgames.core.strategy.PonderingStrategy;
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+
+import java.util.Arrays;
+
+/**
+ * Response time of the search AIs with and without pondering.
+ *
+ * A "human" (HardQuoridorStrategy, given thinkMillis per move) plays A against
+ * the AI as B; each AI decision that is searched (not a pure race, which is
+ * answered from RaceSolver at once) is timed. With pondering on, the AI
+ * searches during the human's think time as QuoridorGame does around nextLine.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.PonderBench [millisPerMove] [thinkMillis] [games]
+ */
+public class PonderBench {
+    private static final int MAX_PLIES = 120;
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        long think = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("AI budget %d ms, human think time %d ms, %d games each%n", millis, think, games);
+        System.out.printf("%-10s %-10s %12s %12s %12s %10s%n", "ai", "ponder", "median ms", "avg ms", "max ms", "decisions");
+        for (int kind = 0; kind < 2; kind++) {
+            for (int ponder = 0; ponder < 2; ponder++) {
+                long[] all = new long[0];
+                for (int g = 0; g < games; g++) {
+                    PonderingStrategy ai = kind == 0 ? new AlphaBetaQuoridorStrategy(millis)
+                            : new MctsQuoridorStrategy(millis, threads);
+                    long[] times = play(ai, ponder == 1, think);
+                    if (ai instanceof MctsQuoridorStrategy) ((MctsQuoridorStrategy) ai).close();
+                    long[] merged = Arrays.copyOf(all, all.length + times.length);
+                    System.arraycopy(times, 0, merged, all.length, times.length);
+                    all = merged;
+                }
+                Arrays.sort(all);
+                int n = all.length;
+                System.out.printf("%-10s %-10s %12.1f %12.1f %12.1f %10d%n", kind == 0 ? "expert" : "mcts",
+                        ponder == 1 ? "on" : "off", n == 0 ? 0 : all[n / 2] / 1e6,
+                        n == 0 ? 0 : Arrays.stream(all).sum() / 1e6 / n, n == 0 ? 0 : all[n - 1] / 1e6, n);
+            }
+        }
+    }
+
+    /** @return nanoseconds of every AI decision in one game (the AI plays B) */
+    private static long[] play(PonderingStrategy ai, boolean ponder, long think) throws InterruptedException {
+        QuoridorBoard board = new QuoridorBoard(2);
+        board.setRemainingWalls('A', board.defaultWallBudget());
+        board.setRemainingWalls('B', board.defaultWallBudget());
+        HardQuoridorStrategy human = new HardQuoridorStrategy();
+        long[] times = new long[MAX_PLIES];
+        int n = 0;
+        for (int ply = 0; ply < MAX_PLIES && board.winner() == 0; ply++) {
+            char side = ply % 2 == 0 ? 'A' : 'B';
+            board.setSideToMove(side);
+            int move;
+            if (side == 'A') {
+                if (ponder) ai.startPondering(board);
+                move = human.chooseMove(board, side);
+                Thread.sleep(think);
+                ai.stopPondering();
+            } else {
+                boolean searched = !board.isRace();
+                long start = System.nanoTime();
+                move = ai.chooseMove(board, side);
+                if (searched) times[n++] = System.nanoTime() - start;
+            }
+            board.applyMove(move);
+        }
+        return Arrays.copyOf(times, n);
+    }
+}
@@ -0,0 +1,132 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+
+import java.util.*;
+
+/**
+ * Move generation throughput: the original char[][] / LinkedHashMap board
+ * against the bitboard-backed QuoridorBoard, on the same mid-game position.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.QuoridorMoveGenBench [millis]
+ */
+public class QuoridorMoveGenBench {
+    private static final String[] SETUP = {
+            "WALL H 3 4", "WALL V 5 2", "WALL H 6 6", "WALL V 1 5", "WALL H 4 1",
+            "MOVE A 7 4", "MOVE B 1 4", "MOVE C 4 1", "MOVE D 4 7", "MOVE A 6 4"
+    };
+
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int players = 4;
+
+        LegacyBoard legacy = new LegacyBoard(players);
+        QuoridorBoard board = new QuoridorBoard(players);
+        for (String cmd : SETUP) {
+            String[] p = cmd.split(" ");
+            if (p[0].equals("WALL")) {
+                legacy.placeWall(p[1].charAt(0), Integer.parseInt(p[2]), Integer.parseInt(p[3]), 'A');
+                board.placeWall(p[1].charAt(0), Integer.parseInt(p[2]), Integer.parseInt(p[3]), 'A');
+            } else {
+                legacy.move(p[1].charAt(0), Integer.parseInt(p[2]), Integer.parseInt(p[3]));
+                board.move(p[1].charAt(0), Integer.parseInt(p[2]), Integer.parseInt(p[3]));
+            }
+        }
+
+        System.out.println("Quoridor move generation, " + players + " players, 9x9");
+        double before = Bench.measure("legacy char[][] + map", players, millis, () -> {
+            long n = 0;
+            for (int s = 0; s < players; s++) n += legacy.generate((char) ('A' + s));
+            return n;
+        });
+        int[] steps = new int[4];
+        int[] slots = new int[board.cellCount()];
+        double after = Bench.measure("bitboard", players, millis, () -> {
+            long n = 0;
+            for (int s = 0; s < players; s++) {
+                char p = (char) ('A' + s);
+                n += board.legalSteps(p, steps);
+                n += board.freeWallSlots('H', slots);
+                n += board.freeWallSlots('V', slots);
+            }
+            return n;
+        });
+        Bench.speedup(before, after);
+    }
+
+    /** The pre-bitboard QuoridorBoard storage and checks, kept as the baseline. */
+    private static final class LegacyBoard {
+        private final int R = 9, C = 9;
+        private final char[][] cells = new char[R][C];
+        private final char[][] vWalls = new char[R][C - 1];
+        private final char[][] hWalls = new char[R - 1][C];
+        private final Map<Character, int[]> playerPos = new LinkedHashMap<>();
+
+        LegacyBoard(int players) {
+            for (int r = 0; r < R; r++) Arrays.fill(cells[r], '.');
+            for (int r = 0; r < R; r++) Arrays.fill(vWalls[r], '.');
+            for (int r = 0; r < R - 1; r++) Arrays.fill(hWalls[r], '.');
+            playerPos.put('A', new int[]{8, 4});
+            playerPos.put('B', new int[]{0, 4});
+            if (players >= 3) playerPos.put('C', new int[]{4, 0});
+            if (players == 4) playerPos.put('D', new int[]{4, 8});
+            for (Map.Entry<Character, int[]> e : playerPos.entrySet()) {
+                int[] p = e.getValue();
+                cells[p[0]][p[1]] = e.getKey();
+            }
+        }
+
+        boolean isFree(int r, int c) {
+            return r >= 0 && r < R && c >= 0 && c < C && cells[r][c] == '.';
+        }
+
+        boolean canStep(int r, int c, int nr, int nc) {
+            if (Math.abs(nr - r) + Math.abs(nc - c) != 1) return false;
+            if (nr == r && nc == c + 1) return vWalls[r][c] == '.';
+            if (nr == r && nc == c - 1) return (c - 1 >= 0) && vWalls[r][c - 1] == '.';
+            if (nr == r + 1 && nc == c) return hWalls[r][c] == '.';
+            if (nr == r - 1 && nc == c) return (r - 1 >= 0) && hWalls[r - 1][c] == '.';
+            return false;
+        }
+
+        boolean canMoveTo(char player, int r, int c) {
+            int[] pos = playerPos.get(player);
+            return isFree(r, c) && canStep(pos[0], pos[1], r, c);
+        }
+
+        boolean move(char player, int nr, int nc) {
+            int[] pos = playerPos.get(player);
+            if (!isFree(nr, nc) || !canStep(pos[0], pos[1], nr, nc)) return false;
+            cells[pos[0]][pos[1]] = '.';
+            cells[nr][nc] = player;
+            playerPos.put(player, new int[]{nr, nc});
+            return true;
+        }
+
+        boolean canPlaceWall(char orient, int r, int c) {
+            if (orient == 'V') return r >= 0 && r < R && c >= 0 && c < C - 1 && vWalls[r][c] == '.';
+            return r >= 0 && r < R - 1 && c >= 0 && c < C && hWalls[r][c] == '.';
+        }
+
+        void placeWall(char orient, int r, int c, char player) {
+            if (orient == 'V') vWalls[r][c] = player;
+            else hWalls[r][c] = player;
+        }
+
+        /** Same enumeration EasyQuoridorStrategy performs, minus the strings. */
+        int generate(char player) {
+            int n = 0;
+            int[] pos = playerPos.get(player);
+            for (int[] d : new int[][]{{-1, 0}, {1, 0}, {0, -1}, {0, 1}}) {
+                if (canMoveTo(player, pos[0] + d[0], pos[1] + d[1])) n++;
+            }
+            for (int i = 0; i < R; i++) {
+                for (int j = 0; j < C; j++) {
+                    if (i < R - 1 && canPlaceWall('H', i, j)) n++;
+                    if (j < C - 1 && canPlaceWall('V', i, j)) n++;
+                }
+            }
+            return n;
+        }
+    }
+}
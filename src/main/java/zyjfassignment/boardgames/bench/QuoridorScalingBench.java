@@ -0,0 +1,78 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.core.strategy.AlphaBetaQuoridorStrategy;
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorMove;
+
+import java.util.Random;
+
+/**
+ * How Quoridor costs grow with the board side N: full legal move generation,
+ * single wall legality checks (flood fill) and alpha-beta search depth within
+ * a fixed budget. Every size is measured on the same kind of mid-game position:
+ * both pawns a few steps out and about a third of the wall budget placed.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.QuoridorScalingBench [millis] [sizes...]
+ */
+public class QuoridorScalingBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int[] sizes = {5, 9, 13, 17, 25};
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+
+        for (int n : sizes) {
+            QuoridorBoard board = midGame(n, new Random(n));
+            System.out.printf("%nN = %d (%d cells, %d walls each)%n", n, board.cellCount(), board.defaultWallBudget());
+
+            int[] moves = new int[board.maxMoves()];
+            int legal = board.generateMoves(moves);
+            Bench.measure("generateMoves (" + legal + " moves)", 1, millis, () -> board.generateMoves(moves));
+
+            int[] slots = new int[board.cellCount()];
+            int free = board.freeWallSlots('H', slots);
+            int[] cursor = {0};
+            Bench.measure("canPlaceWall", 1, millis, () -> {
+                int cell = slots[cursor[0]++ % free];
+                return board.canPlaceWall('H', board.rowOf(cell), board.colOf(cell)) ? 1 : 0;
+            });
+
+            AlphaBetaQuoridorStrategy search = new AlphaBetaQuoridorStrategy(millis);
+            int best = search.chooseMove(board, board.sideToMove());
+            System.out.printf("%-40s %16d plies   (%,d nodes, %s)%n", "alpha-beta depth in " + millis + " ms",
+                    search.lastDepth(), search.lastNodes(), QuoridorMove.format(best));
+        }
+    }
+
+    /** Two-player position with pawns advanced a little and a third of the walls down. */
+    private static QuoridorBoard midGame(int n, Random rng) {
+        QuoridorBoard board = new QuoridorBoard(2, n);
+        int budget = board.defaultWallBudget();
+        board.setRemainingWalls('A', budget);
+        board.setRemainingWalls('B', budget);
+        for (int i = 0; i < n / 4; i++) {
+            for (char p : new char[]{'A', 'B'}) {
+                board.setSideToMove(p);
+                int step = board.nextStepTowardGoal(p);
+                if (step >= 0) board.applyMove(QuoridorMove.step(board.rowOf(step), board.colOf(step)));
+            }
+        }
+        int[] slots = new int[board.cellCount()];
+        for (int placed = 0; placed < 2 * (budget / 3); ) {
+            char p = placed % 2 == 0 ? 'A' : 'B';
+            char orient = rng.nextBoolean() ? 'H' : 'V';
+            int free = board.freeWallSlots(orient, slots);
+            int cell = slots[rng.nextInt(free)];
+            board.setSideToMove(p);
+            int wall = QuoridorMove.wall(orient, board.rowOf(cell), board.colOf(cell));
+            if (board.isLegalMove(wall)) {
+                board.applyMove(wall);
+                placed++;
+            }
+        }
+        board.setSideToMove('A');
+        return board;
+    }
+}
@@ -0,0 +1,86 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.sliding.PatternDatabase;
+import zyjfassignment.boardgames.sliding.SlidingBoard;
+import zyjfassignment.boardgames.sliding.SlidingSolver;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * SlidingSolver with pattern databases against Manhattan distance + linear
+ * conflicts on the same random solvable positions (fixed seeds, as in
+ * SlidingSolverBench, or random walks of the given length where random
+ * positions are out of reach): moves, nodes and time of both, and the
+ * speedup per instance and overall, then the mean of both heuristics. A
+ * solve that exceeds the limit shows "-" and the instance is left out of the
+ * totals.
+ *
+ * Build the databases first (PatternDatabaseBuilder).
+ * Run: java -cp out zyjfassignment.boardgames.bench.SlidingPdbBench [N=4] [instances=20] [dir=pdb] [limit s=60]
+ *          [walk=0 (shuffleSolvable)]
+ */
+public class SlidingPdbBench {
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int instances = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        String dir = args.length > 2 ? args[2] : PatternDatabase.DEFAULT_DIR;
+        long limit = args.length > 3 ? Long.parseLong(args[3]) * 1000 : 60_000;
+        int walk = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        long start = System.nanoTime();
+        PatternDatabase db = PatternDatabase.open(Paths.get(dir), n);
+        if (db == null) {
+            System.out.println("No pattern databases for " + n + "x" + n + " in " + dir);
+            return;
+        }
+        System.out.printf("opened %d patterns in %.3f ms:", db.patternCount(), (System.nanoTime() - start) / 1e6);
+        for (int p = 0; p < db.patternCount(); p++) System.out.print(" " + Arrays.toString(db.tiles(p)));
+        System.out.println();
+
+        SlidingSolver plain = new SlidingSolver(), pdb = new SlidingSolver(db);
+        for (int seed = 0; seed < 3; seed++) {                     // warm-up (JIT, first page faults)
+            SlidingBoard b = board(n, walk, seed);
+            plain.solve(b, limit);
+            pdb.solve(b, limit);
+        }
+
+        System.out.printf("%-6s %6s %14s %10s %14s %10s %8s%n",
+                "seed", "moves", "md+lc nodes", "seconds", "pdb nodes", "seconds", "speedup");
+        long plainNanos = 0, pdbNanos = 0, plainBound = 0, pdbBound = 0;
+        int both = 0;
+        for (int seed = 100; seed < 100 + instances; seed++) {
+            SlidingBoard b = board(n, walk, seed);
+            plainBound += plain.heuristic(b);
+            pdbBound += pdb.heuristic(b);
+            String slow = plain.solve(b, limit), fast = pdb.solve(b, limit);
+            String length = fast != null ? "" + fast.length() : slow != null ? "" + slow.length() : "-";
+            System.out.printf("%-6d %6s %14s %10s %,14d %10s %8s%n", seed, length,
+                    slow != null ? String.format("%,d", plain.lastNodes()) : "-",
+                    slow != null ? String.format("%.3f", plain.lastNanos() / 1e9) : "-",
+                    pdb.lastNodes(),
+                    fast != null ? String.format("%.3f", pdb.lastNanos() / 1e9) : "-",
+                    slow != null && fast != null ? String.format("%.1fx", (double) plain.lastNanos() / pdb.lastNanos()) : "-");
+            if (slow != null && fast != null) {
+                both++;
+                plainNanos += plain.lastNanos();
+                pdbNanos += pdb.lastNanos();
+            }
+        }
+        if (both > 0) {
+            System.out.printf("%d instances solved by both: md+lc %.3f s, pdb %.3f s per instance, speedup %.1fx%n",
+                    both, plainNanos / 1e9 / both, pdbNanos / 1e9 / both, (double) plainNanos / pdbNanos);
+        }
+        System.out.printf("mean heuristic: md+lc %.2f, pdb %.2f%n",
+                (double) plainBound / instances, (double) pdbBound / instances);
+    }
+
+    private static SlidingBoard board(int n, int walk, long seed) {
+        SlidingBoard board = new SlidingBoard(n);
+        if (walk > 0) board.shuffleByRandomWalk(walk, new Random(seed));
+        else board.shuffleSolvable(new Random(seed));
+        return board;
+    }
+}
@@ -0,0 +1,47 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.sliding.SlidingBoard;
+import zyjfassignment.boardgames.sliding.SlidingSolver;
+
+import java.util.Random;
+
+/**
+ * SlidingSolver (IDA*, Manhattan distance + linear conflicts) on random
+ * solvable 3x3 and 4x4 positions (SlidingBoard.shuffleSolvable, fixed
+ * seeds): optimal solution length, nodes, time and nodes/s per instance,
+ * then the averages.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.SlidingSolverBench [instances=30]
+ */
+public class SlidingSolverBench {
+    public static void main(String[] args) {
+        int instances = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        SlidingSolver solver = new SlidingSolver();
+        for (int seed = 0; seed < 3; seed++) solve(solver, 4, seed);   // warm-up (JIT)
+
+        for (int n : new int[]{3, 4}) {
+            System.out.println();
+            System.out.println(n + "x" + n + ", " + instances + " random positions");
+            System.out.printf("%-6s %6s %14s %10s %14s%n", "seed", "moves", "nodes", "seconds", "nodes/s");
+            long nodes = 0, nanos = 0, moves = 0, worst = 0;
+            for (int seed = 100; seed < 100 + instances; seed++) {
+                int length = solve(solver, n, seed);
+                System.out.printf("%-6d %6d %,14d %10.3f %,14.0f%n",
+                        seed, length, solver.lastNodes(), solver.lastNanos() / 1e9, solver.lastNodesPerSecond());
+                nodes += solver.lastNodes();
+                nanos += solver.lastNanos();
+                moves += length;
+                worst = Math.max(worst, solver.lastNanos());
+            }
+            System.out.printf("average %.1f moves, %,d nodes, %.3f s (worst %.3f s), %,.0f nodes/s%n",
+                    (double) moves / instances, nodes / instances, nanos / 1e9 / instances, worst / 1e9,
+                    nodes / (nanos / 1e9));
+        }
+    }
+
+    private static int solve(SlidingSolver solver, int n, long seed) {
+        SlidingBoard board = new SlidingBoard(n);
+        board.shuffleSolvable(new Random(seed));
+        return solver.solve(board).length();
+    }
+}
@@ -0,0 +1,59 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorMove;
+import zyjfassignment.boardgames.quoridor.WallCandidates;
+
+/**
+ * Wall choice for one decision: play and score every free slot (what a
+ * search without pruning does) against WallCandidates.scored, which only
+ * scores walls on the opponent's shortest paths or next to a pawn and splits
+ * large sets across cores. Prints the pruning statistics per board size.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.WallCandidatesBench [millis]
+ */
+public class WallCandidatesBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        for (int n : new int[]{9, 17}) {
+            QuoridorBoard board = new QuoridorBoard(2, n);
+            board.setRemainingWalls('A', board.defaultWallBudget());
+            board.setRemainingWalls('B', board.defaultWallBudget());
+            board.placeWall('H', n / 2, n / 2, 'A');
+            board.placeWall('V', n / 3, n / 2, 'B');
+            board.setSideToMove('A');
+
+            int[] moves = new int[board.maxMoves()];
+            int[] scores = new int[board.maxMoves()];
+            WallCandidates candidates = new WallCandidates();
+            System.out.printf("%nN = %d, walls for A against B%n", n);
+            double before = Bench.measure("score every free slot", 1, millis, () -> scoreAll(board, moves));
+            double after = Bench.measure("WallCandidates.scored", 1, millis, () -> {
+                int kept = candidates.scored(board, 'A', 'B', moves, scores);
+                return kept == 0 ? 0 : moves[0] + scores[0];
+            });
+            Bench.speedup(before, after);
+            System.out.println(candidates.stats());
+        }
+    }
+
+    /** @return best wall found by playing every free slot; checksum only */
+    private static long scoreAll(QuoridorBoard board, int[] moves) {
+        int n = board.generatePseudoLegalMoves(moves);
+        int me = board.distanceToGoal('A'), opp = board.distanceToGoal('B');
+        int best = Integer.MIN_VALUE, bestMove = 0;
+        for (int i = 0; i < n; i++) {
+            if (!QuoridorMove.isWall(moves[i])) continue;
+            board.applyMove(moves[i]);
+            if (board.pathsIntact()) {
+                int s = (board.distanceToGoal('B') - opp) - (board.distanceToGoal('A') - me);
+                if (s > best) {
+                    best = s;
+                    bestMove = moves[i];
+                }
+            }
+            board.undoMove();
+        }
+        return bestMove + best;
+    }
+}
@@ -0,0 +1,83 @@
+package zyjfassignment.boardgames.bench;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+
+import java.util.*;
+
+/**
+ * Wall legality checks per second: the bit-parallel flood fill behind
+ * QuoridorBoard.canPlaceWall against a per-cell HashSet&lt;String&gt; BFS
+ * (the style HardQuoridorStrategy uses) answering the same question.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.bench.WallLegalityBench [millis]
+ */
+public class WallLegalityBench {
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        QuoridorBoard board = new QuoridorBoard(2);
+        // a corridor-heavy position so the fills have to travel
+        for (int c = 0; c < 8; c++) board.placeWall('H', 2, c, 'A');
+        for (int c = 1; c < 9; c++) board.placeWall('H', 5, c, 'B');
+        board.placeWall('V', 4, 3, 'A');
+        board.placeWall('V', 3, 6, 'B');
+
+        int rows = board.getRows(), cols = board.getCols();
+        int slots = (rows - 1) * cols + rows * (cols - 1);
+        System.out.println("Quoridor wall legality, " + slots + " slots per pass");
+
+        double before = Bench.measure("HashSet<String> BFS", slots, millis, () -> {
+            long legal = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    if (r < rows - 1 && board.isWallSlotFree('H', r, c) && stringBfsLegal(board, true, r, c)) legal++;
+                    if (c < cols - 1 && board.isWallSlotFree('V', r, c) && stringBfsLegal(board, false, r, c)) legal++;
+                }
+            }
+            return legal;
+        });
+        double after = Bench.measure("bitboard flood fill", slots, millis, () -> {
+            long legal = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    if (r < rows - 1 && board.canPlaceWall('H', r, c)) legal++;
+                    if (c < cols - 1 && board.canPlaceWall('V', r, c)) legal++;
+                }
+            }
+            return legal;
+        });
+        Bench.speedup(before, after);
+    }
+
+    /** Baseline: both players keep a path if the candidate wall is added, via string-keyed BFS. */
+    private static boolean stringBfsLegal(QuoridorBoard board, boolean horizontal, int wr, int wc) {
+        for (char p : new char[]{'A', 'B'}) {
+            int[] start = board.getPos(p);
+            Queue<int[]> q = new LinkedList<>();
+            Set<String> visited = new HashSet<>();
+            q.add(start);
+            visited.add(start[0] + "," + start[1]);
+            boolean found = false;
+            while (!q.isEmpty() && !found) {
+                int[] cur = q.poll();
+                int r = cur[0], c = cur[1];
+                if ((p == 'A' && r == 0) || (p == 'B' && r == board.getRows() - 1)) found = true;
+                for (int[] d : new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}) {
+                    int nr = r + d[0], nc = c + d[1];
+                    if (!board.canStep(r, c, nr, nc) || crosses(horizontal, wr, wc, r, c, nr, nc)) continue;
+                    String key = nr + "," + nc;
+                    if (!visited.contains(key)) {
+                        visited.add(key);
+                        q.add(new int[]{nr, nc});
+                    }
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static boolean crosses(boolean horizontal, int wr, int wc, int r, int c, int nr, int nc) {
+        if (horizontal) return c == wc && nc == wc && Math.min(r, nr) == wr && r != nr;
+        return r == wr && nr == wr && Math.min(c, nc) == wc && c != nc;
+    }
+}
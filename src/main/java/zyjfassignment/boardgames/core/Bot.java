@@ -15,4 +15,14 @@ public class Bot extends Player {
     public int chooseEdge(DotsBoard board) {
         return strategy.choose(board, id);
     }
+
+    /** Release the strategy's resources (worker threads), if it holds any. */
+    public void close() {
+        if (!(strategy instanceof AutoCloseable)) return;
+        try {
+            ((AutoCloseable) strategy).close();
+        } catch (Exception e) {
+            throw new IllegalStateException("strategy could not be closed", e);
+        }
+    }
 }
@@ -17,6 +17,10 @@ public class Player {
          return name; 
         }
 
+    public int getId() {
+        return id;
+    }
+
     public String colorAnsi() { 
         return color(id); 
     }
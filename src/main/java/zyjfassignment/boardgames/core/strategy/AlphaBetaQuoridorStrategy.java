@@ -0,0 +1,205 @@
+package zyjfassignment.boardgames.core.strategy;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorMove;
+import zyjfassignment.boardgames.quoridor.RaceSolver;
+
+/**
+ * Expert Quoridor Strategy: iterative-deepening alpha-beta (negamax) with a
+ * transposition table, killer moves and a history heuristic. Only walls from
+ * WallCandidates (on the leading opponent's shortest paths or next to a pawn)
+ * are searched. Once nobody has walls left the race is handed to RaceSolver:
+ * at the root the move is played directly, inside the search such nodes are
+ * scored exactly (two players) instead of being searched further.
+ *
+ * Evaluation is the path-length race: the leading opponent's distance to goal
+ * minus our own, plus a small bonus for walls in hand. The search runs in place
+ * on a copy of the board (applyMove / undoMove) and stops at the wall-clock
+ * budget, returning the best move of the last completed iteration.
+ *
+ * While a human thinks the strategy can ponder: the same search runs on a
+ * background thread from the human's position and fills the table. A decision
+ * after pondering stops at the depth the last decision that ran out of time
+ * reached; with the table already filled it usually gets there in a few ms.
+ */
+public class AlphaBetaQuoridorStrategy extends QuoridorSearchStrategy {
+    private final RaceSolver race = new RaceSolver();
+
+    public AlphaBetaQuoridorStrategy() {
+        this(1000);
+    }
+
+    /** @param millisPerMove wall-clock budget for one decision */
+    public AlphaBetaQuoridorStrategy(long millisPerMove) {
+        this(millisPerMove, new TranspositionTable(32));
+    }
+
+    /** Several strategies (or threads) may share one table. */
+    public AlphaBetaQuoridorStrategy(long millisPerMove, TranspositionTable tt) {
+        super(millisPerMove, tt, "alpha-beta ponder");
+    }
+
+    /** @return the encoded best move found within the budget */
+    @Override
+    public int chooseMove(QuoridorBoard board, char playerChar) {
+        stopPondering();
+        boolean ponderHit = pondered;
+        pondered = false;
+        pos = board.copy();
+        pos.setSideToMove(playerChar);
+        if (pos.isRace()) {
+            lastDepth = 0;
+            lastNodes = 0;
+            return race.bestMove(pos, playerChar);
+        }
+        prepare(pos);
+        deadline = System.nanoTime() + budgetNanos;
+        stopped = false;
+        nodes = 0;
+        if (!ponderHit) tt.newSearch();   // keep the pondered entries current
+
+        int best = fallbackMove(pos);
+        lastDepth = 0;
+        for (int depth = 1; depth < MAX_PLY; depth++) {
+            int score = searchRoot(depth);
+            if (stopped) break;
+            best = rootBest;
+            lastDepth = depth;
+            if (Math.abs(score) >= WIN - MAX_PLY) break;   // forced result found
+            if (ponderHit && budgetDepth > 0 && depth >= budgetDepth) break;   // as deep as a full budget gets
+        }
+        if (stopped) budgetDepth = lastDepth;
+        lastNodes = nodes;
+        return best;
+    }
+
+    @Override
+    public void startPondering(QuoridorBoard board) {
+        stopPondering();
+        QuoridorBoard start = board.copy();
+        if (start.isRace() || start.winner() != 0) return;   // races are solved directly anyway
+        ponderFrom(start);
+    }
+
+    /* ---------------- search ---------------- */
+    private int searchRoot(int depth) {
+        int[] list = moves[0];
+        int n = legalOrdered(0, TranspositionTable.move(tt.probe(pos.hash())));
+        int alpha = -INF, beta = INF;
+        int bestMove = list[0];
+        for (int i = 0; i < n; i++) {
+            int m = pickNext(0, i, n);
+            pos.applyMove(m);
+            int score = -search(depth - 1, 1, -beta, -alpha);
+            pos.undoMove();
+            if (stopped) return 0;
+            if (score > alpha) {
+                alpha = score;
+                bestMove = m;
+            }
+        }
+        rootBest = bestMove;
+        tt.store(pos.hash(), bestMove, alpha, depth, TranspositionTable.EXACT);
+        return alpha;
+    }
+
+    @Override
+    int search(int depth, int ply, int alpha, int beta) {
+        if ((++nodes & 63) == 0 && outOfTime()) stopped = true;
+        if (stopped) return 0;
+        if (pos.winner() != 0) return -(WIN - ply);   // the previous mover reached their goal
+        if (pos.isRace() && RaceSolver.isExact(pos)) return raceScore(race.solve(pos), ply);
+        if (depth <= 0 || ply >= MAX_PLY - 1) return evaluate();
+
+        long key = pos.hash();
+        long entry = tt.probe(key);
+        int cut = cutoff(entry, depth, ply, alpha, beta);
+        if (cut != NO_CUTOFF) return cut;
+
+        int n = legalOrdered(ply, tableMove(entry));
+        int alphaOrig = alpha;
+        int best = -INF, bestMove = 0;
+        for (int i = 0; i < n; i++) {
+            int m = pickNext(ply, i, n);
+            pos.applyMove(m);
+            int score = -search(depth - 1, ply + 1, -beta, -alpha);
+            pos.undoMove();
+            if (stopped) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = m;
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) {
+                recordCutoff(ply, m, depth);
+                break;
+            }
+        }
+        store(key, bestMove, best, alphaOrig, beta, depth, ply);
+        return best;
+    }
+
+    /**
+     * Fill moves[ply] with the legal moves of the side to move and order[ply]
+     * with their ordering scores. Walls come from the candidate generator
+     * and are verified against the distance fields by playing them.
+     * @return number of moves
+     */
+    private int legalOrdered(int ply, int ttMove) {
+        int[] list = moves[ply];
+        int[] score = order[ply];
+        char me = pos.sideToMove();
+        char rival = pos.leadingOpponent(me);
+        int n = pos.remainingWalls(me) > 0 ? walls.generate(pos, rival, list) : 0;
+        int steps = pos.legalSteps(me, stepCells);
+        for (int i = 0; i < steps; i++) list[n++] = QuoridorMove.step(pos.rowOf(stepCells[i]), pos.colOf(stepCells[i]));
+        int myDist = pos.distanceToGoal(me);
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            int m = list[i];
+            int s;
+            if (QuoridorMove.isWall(m)) {
+                pos.applyMove(m);
+                boolean legal = pos.pathsIntact();
+                int gain = legal ? pos.distanceToGoal(rival) - pos.distanceToGoal(me) : 0;
+                pos.undoMove();
+                if (!legal) continue;
+                s = 400 * (gain - (pos.distanceToGoal(rival) - myDist));
+            } else if (QuoridorMove.type(m) == QuoridorMove.STEP) {
+                int to = pos.cellIndex(QuoridorMove.row(m), QuoridorMove.col(m));
+                s = pos.distanceToGoal(me, to) < myDist ? 1000 : 0;
+            } else {
+                s = -10_000;
+            }
+            list[kept] = m;
+            score[kept] = orderScore(ply, m, s, ttMove);
+            kept++;
+        }
+        if (kept == 0) {
+            list[0] = QuoridorMove.PASS;
+            score[0] = 0;
+            kept = 1;
+        }
+        return kept;
+    }
+
+    /* ---------------- evaluation ---------------- */
+    /** @return score from the point of view of the side to move */
+    private int evaluate() {
+        char me = pos.sideToMove();
+        char rival = pos.leadingOpponent(me);
+        int myDist = pos.distanceToGoal(me);
+        int rivalDist = pos.distanceToGoal(rival);
+        return 100 * (rivalDist - myDist)
+                + 15 * (pos.remainingWalls(me) - pos.remainingWalls(rival))
+                + 50;   // tempo: we move first
+    }
+
+    /* ---------------- helpers ---------------- */
+    /** Exact race result (plies to the end, signed) as a search score; ends past MAX_PLY are clamped. */
+    private static int raceScore(int result, int ply) {
+        if (result == 0) return 0;
+        int end = Math.min(ply + Math.abs(result), MAX_PLY - 1);
+        return result > 0 ? WIN - end : -(WIN - end);
+    }
+}
@@ -1,48 +1,61 @@
 package zyjfassignment.boardgames.core.strategy;
 
 import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorMove;
+import zyjfassignment.boardgames.quoridor.QuoridorPathEngine;
+import zyjfassignment.boardgames.quoridor.RaceSolver;
+import zyjfassignment.boardgames.quoridor.WallCandidates;
 import java.util.*;
 
 /**
  * Hard Quoridor Strategy: BFS shortest path + strategic wall placement
+ * (the best-scoring wall among WallCandidates). With no walls left anywhere
+ * the race is played by RaceSolver.
  */
 public class HardQuoridorStrategy implements QuoridorStrategy {
     private final Random rng = new Random();
+    private final QuoridorPathEngine paths = new QuoridorPathEngine();
+    private final WallCandidates walls = new WallCandidates();
+    private final RaceSolver race = new RaceSolver();
+    private int[] wallMoves = new int[0];
+    private int[] wallScores = new int[0];
 
     @Override
-    public String decideMove(QuoridorBoard board, char playerChar) {
-        List<Character> players = new ArrayList<>(board.getPlayerPositions().keySet());
-        int idx = players.indexOf(playerChar);
-        if (idx == -1) return "PASS";
+    public int chooseMove(QuoridorBoard board, char playerChar) {
+        if (!board.getPlayerPositions().containsKey(playerChar)) return QuoridorMove.PASS;
 
-        char opponent = players.get((idx + 1) % players.size());
+        // the opponent closest to winning, not just the next player in turn order
+        char opponent = board.leadingOpponent(playerChar);
         int[] selfPos = board.getPlayerPosition(playerChar);
         int[] oppPos = board.getPlayerPosition(opponent);
-        if (selfPos == null || oppPos == null) return "PASS";
+        if (selfPos == null || oppPos == null) return QuoridorMove.PASS;
+        if (board.isRace()) return race.bestMove(board, playerChar);
 
-        // shorest path
-        int selfDist = shortestPathLength(board, playerChar, selfPos);
-        int oppDist = shortestPathLength(board, opponent, oppPos);
+        // shortest path: read from the board's cached distance fields
+        int selfDist = board.distanceToGoal(playerChar);
+        int oppDist = board.distanceToGoal(opponent);
 
         if (board.remainingWalls(playerChar) > 0 && oppDist <= selfDist) {
-            String wallCmd = placeStrategicWall(board, oppPos, playerChar);
-            if (wallCmd != null) return wallCmd;
+            int wall = placeStrategicWall(board, opponent, playerChar, 1);
+            if (wall != QuoridorMove.PASS) return wall;
         }
 
-       
-        int[] nextMove = nextStepAlongShortestPath(board, playerChar, selfPos);
-        if (nextMove != null) return "MOVE " + nextMove[0] + " " + nextMove[1];
+        // next step downhill in the distance field; route around pawns only if it is blocked
+        int step = board.nextStepTowardGoal(playerChar);
+        if (step >= 0) return QuoridorMove.step(board.rowOf(step), board.colOf(step));
+        int[] nextMove = nextStepAlongShortestPath(board, playerChar);
+        if (nextMove != null) return QuoridorMove.step(nextMove[0], nextMove[1]);
 
         //
         int[] fallback = randomValidMove(board, playerChar);
-        if (fallback != null) return "MOVE " + fallback[0] + " " + fallback[1];
+        if (fallback != null) return QuoridorMove.step(fallback[0], fallback[1]);
 
         if (board.remainingWalls(playerChar) > 0) {
-            String wallCmd = placeStrategicWall(board, oppPos, playerChar);
-            if (wallCmd != null) return wallCmd;
+            int wall = placeStrategicWall(board, opponent, playerChar, Integer.MIN_VALUE);
+            if (wall != QuoridorMove.PASS) return wall;
         }
 
-        return "PASS";
+        return QuoridorMove.PASS;
     }
 
     // ---------------- random fallback move ----------------
@@ -58,100 +71,30 @@ public class HardQuoridorStrategy implements QuoridorStrategy {
         return moves.get(rng.nextInt(moves.size()));
     }
 
-    // ---------------- BFS shortest path ----------------
-    private int shortestPathLength(QuoridorBoard board, char player, int[] start) {
-        Queue<int[]> q = new LinkedList<>();
-        Set<String> visited = new HashSet<>();
-        q.add(start);
-        visited.add(start[0] + "," + start[1]);
-        int dist = 0;
-        while (!q.isEmpty()) {
-            int size = q.size();
-            for (int i = 0; i < size; i++) {
-                int[] cur = q.poll();
-                int r = cur[0], c = cur[1];
-                if (reachedGoal(player, r, c)) return dist;
-
-                for (int[] d : new int[][]{{1,0},{-1,0},{0,1},{0,-1}}) {
-                    int nr = r + d[0], nc = c + d[1];
-                    if (board.canMoveTo(player, nr, nc)) {
-                        String key = nr + "," + nc;
-                        if (!visited.contains(key)) {
-                            visited.add(key);
-                            q.add(new int[]{nr, nc});
-                        }
-                    }
-                }
-            }
-            dist++;
-        }
-        return Integer.MAX_VALUE;
-    }
-
-    private boolean reachedGoal(char player, int r, int c) {
-        switch (player) {
-            case 'A': return r == 0;
-            case 'B': return r == 8;
-            case 'C': return c == 8;
-            case 'D': return c == 0;
-            default: return false;
-        }
-    }
-
     // ---------------- next step along shortest path ----------------
-    public int[] nextStepAlongShortestPath(QuoridorBoard board, char player, int[] start) {
-        Queue<int[]> q = new LinkedList<>();
-        Map<String, String> prev = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-        q.add(start);
-        visited.add(start[0] + "," + start[1]);
-        String goalKey = null;
-        while (!q.isEmpty()) {
-            int[] cur = q.poll();
-            int r = cur[0], c = cur[1];
-            if (reachedGoal(player, r, c)) {
-                goalKey = r + "," + c;
-                break;
-            }
-            for (int[] d : new int[][]{{1,0},{-1,0},{0,1},{0,-1}}) {
-                int nr = r + d[0], nc = c + d[1];
-                if (board.canMoveTo(player, nr, nc)) {
-                    String key = nr + "," + nc;
-                    if (!visited.contains(key)) {
-                        visited.add(key);
-                        prev.put(key, r + "," + c);
-                        q.add(new int[]{nr, nc});
-                    }
-                }
-            }
-        }
-        if (goalKey == null) return null;
-        // find next step
-        String curKey = goalKey;
-        String parentKey = prev.get(curKey);
-        while (parentKey != null && !parentKey.equals(start[0] + "," + start[1])) {
-            curKey = parentKey;
-            parentKey = prev.get(curKey);
-        }
-        String[] parts = curKey.split(",");
-        if (parts.length != 2) return null;
-        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    public int[] nextStepAlongShortestPath(QuoridorBoard board, char player) {
+        int step = paths.nextStep(board, player);
+        if (step < 0) return null;
+        return new int[]{board.rowOf(step), board.colOf(step)};
     }
 
     // ---------------- strategic wall placement ----------------
-    private String placeStrategicWall(QuoridorBoard board, int[] oppPos, char player) {
-        if (oppPos == null) return null;
-        int[][] offsets = {{0,0},{0,1},{1,0},{1,1},{-1,0},{0,-1},{-1,-1},{-1,1},{1,-1}};
-        for (char orient : new char[]{'H','V'}) {
-            for (int[] off : offsets) {
-                int r = oppPos[0] + off[0];
-                int c = oppPos[1] + off[1];
-                if (r >= 0 && r < 8 && c >= 0 && c < 8 && board.canPlaceWall(orient, r, c)) {
-                    return String.format("WALL %c %d %d", orient, r, c);
-                }
-            }
+    /**
+     * Best wall among the path-aware candidates, scored by how much longer it
+     * makes the opponent's path than ours.
+     * @return encoded wall gaining at least minGain, or PASS if none does
+     */
+    private int placeStrategicWall(QuoridorBoard board, char opponent, char player, int minGain) {
+        if (wallMoves.length < board.maxMoves()) {
+            wallMoves = new int[board.maxMoves()];
+            wallScores = new int[board.maxMoves()];
         }
-        return null;
+        int n = walls.scored(board, player, opponent, wallMoves, wallScores);
+        return n > 0 && wallScores[0] >= minGain ? wallMoves[0] : QuoridorMove.PASS;
     }
-}
 
+    /** @return pruning statistics of the wall candidate generator */
+    public String wallStats() {
+        return walls.stats();
+    }
+}
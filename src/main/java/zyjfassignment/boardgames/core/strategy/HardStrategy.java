@@ -5,8 +5,12 @@ import zyjfassignment.boardgames.dots.DotsBoard;
 
 public class HardStrategy implements EdgeChoiceStrategy {
     @Override public int choose(DotsBoard board, int selfId) {
-        for (int id : board.getAvailableEdgeIds()) if (board.isFinishingMove(id)) return id;
-        for (int id : board.getAvailableEdgeIds()) if (!board.wouldCreateThirdEdge(id)) return id;
-        return board.getAvailableEdgeIds().isEmpty() ? -1 : board.getAvailableEdgeIds().get(0);
+        int safe = -1;
+        // one ascending pass: the first finishing move wins, else the first safe edge, else the smallest id
+        for (int id = board.nextAvailableEdge(0); id >= 0; id = board.nextAvailableEdge(id + 1)) {
+            if (board.isFinishingMove(id)) return id;
+            if (safe < 0 && !board.wouldCreateThirdEdge(id)) safe = id;
+        }
+        return safe >= 0 ? safe : board.nextAvailableEdge(0);
     }
 }
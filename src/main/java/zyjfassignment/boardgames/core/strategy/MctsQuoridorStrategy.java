@@ -0,0 +1,414 @@
+package zyjfassignment.boardgames.core.strategy;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorMove;
+import zyjfassignment.boardgames.quoridor.RaceSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Monte Carlo Tree Search Quoridor Strategy (root parallel).
+ *
+ * Every worker owns a board copy and its own UCT tree and runs on a shared
+ * ForkJoinPool until the time budget is spent; root visit counts are then
+ * summed across workers. Playouts follow the distance fields (mostly step
+ * downhill, sometimes wall the leading opponent's next step). Trees are kept
+ * between turns: the next decision re-roots each tree at the node whose hash
+ * matches the new position. Pure races (no walls left) are played straight
+ * from RaceSolver without searching.
+ *
+ * Pondering grows the same trees from a human's position on a background
+ * thread (up to PONDER_NODES new nodes). The decision that follows re-roots
+ * them as usual and stops early once its root has as many visits as a full
+ * budget produces at the measured playout rate.
+ *
+ * The worker pool belongs to the instance; close() stops pondering and shuts
+ * it down once the game is over.
+ */
+public class MctsQuoridorStrategy implements PonderingStrategy, AutoCloseable {
+    private static final double EXPLORATION = 0.9;
+    /** Tree nodes a ponder search may add (over all workers), to bound memory while a human thinks. */
+    public static final long PONDER_NODES = 2_000_000;
+
+    private final long budgetNanos;
+    private final int threads;
+    private final ForkJoinPool pool;
+    private final Worker[] workers;
+    private final RaceSolver race = new RaceSolver();
+    private final Ponderer ponderer = new Ponderer("mcts ponder");
+    private boolean pondered;
+
+    private long lastNodes, lastPlayouts, lastNanos;
+
+    public MctsQuoridorStrategy() {
+        this(1000, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param millisPerMove wall-clock budget for one decision
+     * @param threads       number of parallel workers (1 = single-threaded)
+     */
+    public MctsQuoridorStrategy(long millisPerMove, int threads) {
+        this.budgetNanos = Math.max(1, millisPerMove) * 1_000_000L;
+        this.threads = Math.max(1, threads);
+        this.pool = new ForkJoinPool(this.threads);
+        this.workers = new Worker[this.threads];
+        for (int i = 0; i < this.threads; i++) workers[i] = new Worker(0x9E3779B97F4A7C15L * (i + 1) ^ System.nanoTime());
+    }
+
+    /** @return the encoded move with the most visits over all workers */
+    @Override
+    public int chooseMove(QuoridorBoard board, char playerChar) {
+        stopPondering();
+        boolean ponderHit = pondered;
+        pondered = false;
+        QuoridorBoard root = board.copy();
+        root.setSideToMove(playerChar);
+        if (root.isRace()) {
+            lastNanos = lastNodes = lastPlayouts = 0;
+            return race.bestMove(root, playerChar);
+        }
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+
+        runWorkers(w -> w.search(root.copy(), deadline, () -> false, Long.MAX_VALUE,
+                ponderHit && w.playoutsPerNano > 0 ? (long) (w.playoutsPerNano * budgetNanos) : Long.MAX_VALUE));
+
+        lastNanos = System.nanoTime() - start;
+        lastNodes = 0;
+        lastPlayouts = 0;
+        for (Worker w : workers) {
+            lastNodes += w.nodesCreated;
+            lastPlayouts += w.playouts;
+        }
+        return mostVisited(root);
+    }
+
+    @Override
+    public void startPondering(QuoridorBoard board) {
+        stopPondering();
+        QuoridorBoard start = board.copy();
+        if (start.isRace() || start.winner() != 0) return;
+        pondered = true;
+        BooleanSupplier halt = ponderer::halted;
+        ponderer.start(() -> runWorkers(w -> w.search(start.copy(), Long.MAX_VALUE, halt,
+                PONDER_NODES / threads, Long.MAX_VALUE)));
+    }
+
+    @Override
+    public void stopPondering() {
+        ponderer.stop();
+    }
+
+    /** Run one job per worker on the pool and wait for all of them. */
+    private void runWorkers(Consumer<Worker> job) {
+        List<Callable<Void>> jobs = new ArrayList<>();
+        for (Worker w : workers) {
+            jobs.add(() -> {
+                job.accept(w);
+                return null;
+            });
+        }
+        List<Future<Void>> done = pool.invokeAll(jobs);
+        for (Future<Void> f : done) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("MCTS worker failed", e);
+            }
+        }
+    }
+
+    /** @return tree nodes created per second in the last decision */
+    public double lastNodesPerSecond() {
+        return lastNanos == 0 ? 0 : lastNodes / (lastNanos / 1e9);
+    }
+
+    /** @return playouts per second in the last decision */
+    public double lastPlayoutsPerSecond() {
+        return lastNanos == 0 ? 0 : lastPlayouts / (lastNanos / 1e9);
+    }
+
+    public long lastPlayouts() {
+        return lastPlayouts;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    /** Stop pondering and shut down the worker pool; chooseMove() must not be called afterwards. */
+    @Override
+    public void close() {
+        stopPondering();
+        pool.shutdown();
+    }
+
+    /** Sum root statistics per move over the workers' trees. */
+    private int mostVisited(QuoridorBoard root) {
+        Node first = workers[0].root;
+        if (first == null || first.moves == null) {
+            int[] list = new int[root.maxMoves()];
+            root.generateMoves(list);
+            return list[0];
+        }
+        int bestMove = first.moves[0];
+        long bestVisits = -1;
+        for (int i = 0; i < first.moves.length; i++) {
+            int m = first.moves[i];
+            long visits = 0;
+            for (Worker w : workers) visits += w.root.visitsOf(m);
+            if (visits > bestVisits) {
+                bestVisits = visits;
+                bestMove = m;
+            }
+        }
+        return bestMove;
+    }
+
+    /* ---------------- tree ---------------- */
+    static final class Node {
+        final int move;          // move that led here
+        final int mover;         // slot that played it
+        final long hash;         // position hash after the move
+        Node parent;
+        int[] moves;             // legal moves, best prior first (null until expanded)
+        Node[] children;
+        int expanded;            // children[0 .. expanded) exist
+        int visits;
+        double wins;             // playouts won by mover
+
+        Node(int move, int mover, long hash, Node parent) {
+            this.move = move;
+            this.mover = mover;
+            this.hash = hash;
+            this.parent = parent;
+        }
+
+        long visitsOf(int m) {
+            for (int i = 0; i < expanded; i++) if (children[i].move == m) return children[i].visits;
+            return 0;
+        }
+    }
+
+    /** One root-parallel searcher: its own board, tree, scratch buffers and RNG. */
+    static final class Worker {
+        private final Random rng;
+        Node root;
+        long nodesCreated, playouts;
+        double playoutsPerNano;  // rate of the last search that ran for a while
+        private QuoridorBoard pos;
+        private int[] scratch = new int[0];
+        private int[] prior = new int[0];
+        private final double[] reward = new double[4];
+
+        Worker(long seed) {
+            rng = new Random(seed);
+        }
+
+        /**
+         * Grow the tree from board until the deadline, until halt says so, after
+         * maxNodes new nodes, or once the root has targetVisits visits.
+         */
+        void search(QuoridorBoard board, long deadline, BooleanSupplier halt, long maxNodes, long targetVisits) {
+            pos = board;
+            if (scratch.length < pos.maxMoves()) {
+                scratch = new int[pos.maxMoves()];
+                prior = new int[pos.maxMoves()];
+            }
+            root = reuse(root, pos.hash(), pos.getPlayerCount());
+            if (root == null) root = new Node(QuoridorMove.PASS, -1, pos.hash(), null);
+            root.parent = null;
+            nodesCreated = 0;
+            playouts = 0;
+            int base = pos.historySize();
+            long start = System.nanoTime();
+            while (System.nanoTime() < deadline && !halt.getAsBoolean()
+                    && nodesCreated < maxNodes && root.visits < targetVisits) {
+                Node leaf = select();
+                playout();
+                backpropagate(leaf);
+                while (pos.historySize() > base) pos.undoMove();
+                playouts++;
+            }
+            long spent = System.nanoTime() - start;
+            if (spent > 50_000_000L) playoutsPerNano = playouts / (double) spent;
+        }
+
+        /** @return the node of the previous tree that matches hash within a round of moves, or null */
+        private static Node reuse(Node old, long hash, int depth) {
+            if (old == null) return null;
+            if (old.hash == hash) return old;
+            if (depth == 0) return null;
+            for (int i = 0; i < old.expanded; i++) {
+                Node found = reuse(old.children[i], hash, depth - 1);
+                if (found != null) return found;
+            }
+            return null;
+        }
+
+        /** Walk down by UCT, widening progressively, and return the new leaf. */
+        private Node select() {
+            Node node = root;
+            while (pos.winner() == 0) {
+                if (node.moves == null) expand(node);
+                int allowed = Math.min(node.moves.length, 2 + (int) Math.sqrt(node.visits));
+                if (node.expanded < allowed) {
+                    int m = node.moves[node.expanded];
+                    int mover = sideSlot();
+                    pos.applyMove(m);
+                    Node child = new Node(m, mover, pos.hash(), node);
+                    node.children[node.expanded++] = child;
+                    nodesCreated++;
+                    return child;
+                }
+                node = bestChild(node);
+                pos.applyMove(node.move);
+            }
+            return node;
+        }
+
+        private Node bestChild(Node node) {
+            double logN = Math.log(Math.max(1, node.visits));
+            Node best = node.children[0];
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < node.expanded; i++) {
+                Node c = node.children[i];
+                double score = c.visits == 0 ? Double.MAX_VALUE
+                        : c.wins / c.visits + EXPLORATION * Math.sqrt(logN / c.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        /** Generate legal moves, ordered by a cheap prior: steps downhill, then walls by path gain. */
+        private void expand(Node node) {
+            int n = pos.generatePseudoLegalMoves(scratch);
+            char me = pos.sideToMove();
+            char rival = pos.leadingOpponent(me);
+            int myDist = pos.distanceToGoal(me);
+            int rivalDist = pos.distanceToGoal(rival);
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                int m = scratch[i];
+                int p;
+                if (QuoridorMove.isWall(m)) {
+                    pos.applyMove(m);
+                    boolean legal = pos.pathsIntact();
+                    p = legal ? (pos.distanceToGoal(rival) - rivalDist) - (pos.distanceToGoal(me) - myDist) : 0;
+                    pos.undoMove();
+                    if (!legal) continue;
+                    p *= 10;
+                } else if (QuoridorMove.type(m) == QuoridorMove.STEP) {
+                    int to = pos.cellIndex(QuoridorMove.row(m), QuoridorMove.col(m));
+                    p = pos.distanceToGoal(me, to) < myDist ? 25 : 5;
+                } else {
+                    p = -1000;
+                }
+                scratch[kept] = m;
+                prior[kept] = p;
+                kept++;
+            }
+            if (kept == 0) {
+                scratch[0] = QuoridorMove.PASS;
+                kept = 1;
+            }
+            // insertion sort by prior, highest first
+            for (int i = 1; i < kept; i++) {
+                int m = scratch[i], p = prior[i], j = i - 1;
+                while (j >= 0 && prior[j] < p) {
+                    scratch[j + 1] = scratch[j];
+                    prior[j + 1] = prior[j];
+                    j--;
+                }
+                scratch[j + 1] = m;
+                prior[j + 1] = p;
+            }
+            node.moves = Arrays.copyOf(scratch, kept);
+            node.children = new Node[kept];
+        }
+
+        /** Shortest-path biased playout from the current position; fills reward[]. */
+        private void playout() {
+            int players = pos.getPlayerCount();
+            int limit = 4 * pos.cellCount();
+            for (int ply = 0; ply < limit && pos.winner() == 0; ply++) {
+                pos.applyMove(playoutMove());
+            }
+            Arrays.fill(reward, 0);
+            char w = pos.winner();
+            if (w != 0) {
+                reward[w - 'A'] = 1;
+                return;
+            }
+            // no winner within the cap: credit the player with the best race position
+            int best = 0, bestScore = Integer.MAX_VALUE;
+            int side = pos.sideToMove() - 'A';
+            for (int s = 0; s < players; s++) {
+                int turnsAway = (s - side + players) % players;
+                int score = pos.distanceToGoal((char) ('A' + s)) * players + turnsAway;
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = s;
+                }
+            }
+            reward[best] = 1;
+        }
+
+        private int playoutMove() {
+            char me = pos.sideToMove();
+            if (pos.remainingWalls(me) > 0 && rng.nextInt(5) == 0) {
+                int wall = wallAhead(pos.leadingOpponent(me));
+                if (wall != QuoridorMove.PASS) return wall;
+            }
+            if (rng.nextInt(10) != 0) {
+                int step = pos.nextStepTowardGoal(me);
+                if (step >= 0) return QuoridorMove.step(pos.rowOf(step), pos.colOf(step));
+            }
+            int n = pos.legalSteps(me, scratch);
+            if (n == 0) return QuoridorMove.PASS;
+            int to = scratch[rng.nextInt(n)];
+            return QuoridorMove.step(pos.rowOf(to), pos.colOf(to));
+        }
+
+        /** @return a legal wall across the opponent's next downhill step, or PASS if none */
+        private int wallAhead(char opp) {
+            int from = pos.cellOf(opp);
+            int d = pos.distanceToGoal(opp);
+            for (int dir = 0; dir < 4; dir++) {
+                int to = pos.neighbor(from, dir);
+                if (to < 0 || pos.distanceToGoal(opp, to) != d - 1) continue;
+                int a = Math.min(from, to);
+                boolean vertical = dir == QuoridorBoard.WEST || dir == QuoridorBoard.EAST;
+                int m = QuoridorMove.wall(vertical ? 'V' : 'H', pos.rowOf(a), pos.colOf(a));
+                pos.applyMove(m);
+                boolean legal = pos.pathsIntact();
+                pos.undoMove();
+                if (legal) return m;
+            }
+            return QuoridorMove.PASS;
+        }
+
+        private void backpropagate(Node leaf) {
+            for (Node n = leaf; n != null; n = n.parent) {
+                n.visits++;
+                if (n.mover >= 0) n.wins += reward[n.mover];
+            }
+        }
+
+        private int sideSlot() {
+            return pos.sideToMove() - 'A';
+        }
+    }
+}
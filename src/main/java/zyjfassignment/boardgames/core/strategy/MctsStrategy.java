@@ -0,0 +1,338 @@
+package zyjfassignment.boardgames.core.strategy;
+
+import zyjfassignment.boardgames.dots.DotsBoard;
+import zyjfassignment.boardgames.dots.DotsState;
+import zyjfassignment.boardgames.dots.NimstringEndgame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo Tree Search Dots & Boxes Strategy (root parallel), for boards
+ * beyond SolverStrategy's reach.
+ *
+ * Every worker owns its own UCT tree and a DotsState scratch copy and runs on
+ * a shared ForkJoinPool until the time budget is spent; root visit counts are
+ * then summed across workers. Each iteration copies the root state, walks the
+ * tree (a completed box keeps the turn, so the mover is stored per node) and
+ * plays out with HardStrategy's policy: take a free box, else a random edge
+ * that gives no box a third side, else the smallest of a few sampled
+ * sacrifices. A playout scores 1 for the winner, 1/2 each for a draw. The
+ * tree uses the same knowledge to prune: with a box to take it only tries
+ * the captures and the double-dealing handout (declining the last two boxes
+ * of a chain to keep control), and it hands nothing over while a safe edge
+ * is left.
+ *
+ * The worker pool belongs to the instance; close() shuts it down once the
+ * game is over.
+ *
+ * A capture that opens nothing (see SolverStrategy) is played at once
+ * without searching, and so is the NimstringEndgame move once the game is a
+ * loony endgame.
+ */
+public class MctsStrategy implements EdgeChoiceStrategy, AutoCloseable {
+    private static final double EXPLORATION = 0.7;
+    /** Random picks tried before a playout scans the free edges for a safe one. */
+    private static final int SAFE_TRIES = 8;
+    /** Random edges compared when a playout has to open a chain. */
+    private static final int SACRIFICE_TRIES = 4;
+
+    private final long budgetNanos;
+    private final int threads;
+    private final ForkJoinPool pool;
+    private final Worker[] workers;
+    private final NimstringEndgame endgame = new NimstringEndgame();
+
+    private long lastNodes, lastPlayouts, lastNanos;
+
+    public MctsStrategy() {
+        this(1000, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param millisPerMove wall-clock budget for one decision
+     * @param threads       number of parallel workers (1 = single-threaded)
+     */
+    public MctsStrategy(long millisPerMove, int threads) {
+        this.budgetNanos = Math.max(1, millisPerMove) * 1_000_000L;
+        this.threads = Math.max(1, threads);
+        this.pool = new ForkJoinPool(this.threads);
+        this.workers = new Worker[this.threads];
+        for (int i = 0; i < this.threads; i++) workers[i] = new Worker(0x9E3779B97F4A7C15L * (i + 1) ^ System.nanoTime());
+    }
+
+    /** @return the edge with the most visits over all workers */
+    @Override
+    public int choose(DotsBoard board, int selfId) {
+        if (board.isFull()) return -1;
+        DotsState root = board.state(selfId);
+        int take = root.finishingEdge();
+        if (root.freeCount() == 1 || take >= 0 && !root.wouldCreateThirdEdge(take)) {
+            lastNanos = lastNodes = lastPlayouts = 0;
+            return take >= 0 ? take : root.freeAt(0);
+        }
+        int loony = endgame.bestMove(board);
+        if (loony >= 0) {
+            lastNanos = lastNodes = lastPlayouts = 0;
+            return loony;
+        }
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+
+        List<Callable<Void>> jobs = new ArrayList<>();
+        for (Worker w : workers) {
+            jobs.add(() -> {
+                w.search(root, deadline);
+                return null;
+            });
+        }
+        for (Future<Void> f : pool.invokeAll(jobs)) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("MCTS worker failed", e);
+            }
+        }
+
+        lastNanos = System.nanoTime() - start;
+        lastNodes = 0;
+        lastPlayouts = 0;
+        for (Worker w : workers) {
+            lastNodes += w.nodesCreated;
+            lastPlayouts += w.playouts;
+        }
+        return mostVisited();
+    }
+
+    /** @return tree nodes created per second in the last decision */
+    public double lastNodesPerSecond() {
+        return lastNanos == 0 ? 0 : lastNodes / (lastNanos / 1e9);
+    }
+
+    /** @return playouts per second in the last decision */
+    public double lastPlayoutsPerSecond() {
+        return lastNanos == 0 ? 0 : lastPlayouts / (lastNanos / 1e9);
+    }
+
+    public long lastPlayouts() {
+        return lastPlayouts;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    /** Shut down the worker pool; choose() must not be called afterwards. */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /** Sum root statistics per edge over the workers' trees. */
+    private int mostVisited() {
+        Node first = workers[0].root;
+        int bestMove = first.moves[0];
+        long bestVisits = -1;
+        for (int i = 0; i < first.moves.length; i++) {
+            int m = first.moves[i];
+            long visits = 0;
+            for (Worker w : workers) visits += w.root.visitsOf(m);
+            if (visits > bestVisits) {
+                bestVisits = visits;
+                bestMove = m;
+            }
+        }
+        return bestMove;
+    }
+
+    /* ---------------- tree ---------------- */
+    static final class Node {
+        final int move;          // edge that led here
+        final int mover;         // player (1/2) who claimed it
+        final Node parent;
+        int[] moves;             // free edges, best prior first (null until expanded)
+        Node[] children;
+        int expanded;            // children[0 .. expanded) exist
+        int visits;
+        double wins;             // playouts won by mover
+
+        Node(int move, int mover, Node parent) {
+            this.move = move;
+            this.mover = mover;
+            this.parent = parent;
+        }
+
+        long visitsOf(int m) {
+            for (int i = 0; i < expanded; i++) if (children[i].move == m) return children[i].visits;
+            return 0;
+        }
+    }
+
+    /** One root-parallel searcher: its own tree, state copy, scratch buffers and RNG. */
+    static final class Worker {
+        private final SplittableRandom rng;
+        Node root;
+        long nodesCreated, playouts;
+        private DotsState pos;
+        private int[] scratch = new int[0];
+        private int[] prior = new int[0];
+        private boolean safeLeft;    // some free edge may still be safe (never comes back once gone)
+
+        Worker(long seed) {
+            rng = new SplittableRandom(seed);
+        }
+
+        /** Grow a fresh tree from the root state until the deadline. */
+        void search(DotsState rootState, long deadline) {
+            pos = rootState.copy();
+            if (scratch.length < rootState.freeCount()) {
+                scratch = new int[rootState.freeCount()];
+                prior = new int[rootState.freeCount()];
+            }
+            root = new Node(-1, 0, null);
+            nodesCreated = 0;
+            playouts = 0;
+            do {
+                pos.copyFrom(rootState);
+                safeLeft = true;
+                Node leaf = select();
+                playout();
+                backpropagate(leaf);
+                playouts++;
+            } while (System.nanoTime() < deadline);
+        }
+
+        /** Walk down by UCT, widening progressively, and return the new leaf. */
+        private Node select() {
+            Node node = root;
+            while (!pos.isOver()) {
+                if (node.moves == null) expand(node);
+                int allowed = Math.min(node.moves.length, 2 + (int) Math.sqrt(node.visits));
+                if (node.expanded < allowed) {
+                    int m = node.moves[node.expanded];
+                    int mover = pos.toMove();
+                    pos.claim(m);
+                    Node child = new Node(m, mover, node);
+                    node.children[node.expanded++] = child;
+                    nodesCreated++;
+                    return child;
+                }
+                node = bestChild(node);
+                pos.claim(node.move);
+            }
+            return node;
+        }
+
+        private Node bestChild(Node node) {
+            double logN = Math.log(Math.max(1, node.visits));
+            Node best = node.children[0];
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < node.expanded; i++) {
+                Node c = node.children[i];
+                double score = c.visits == 0 ? Double.MAX_VALUE
+                        : c.wins / c.visits + EXPLORATION * Math.sqrt(logN / c.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * List the candidate edges ordered by a cheap prior. With a box to take:
+         * the captures and the double-dealing handouts of the chain being taken.
+         * Else the safe edges if any, else every edge, smallest sacrifice first.
+         */
+        private void expand(Node node) {
+            boolean capture = pos.finishingEdge() >= 0;
+            boolean anySafe = false;
+            int n = 0;
+            for (int i = 0; i < pos.freeCount(); i++) {
+                int e = pos.freeAt(i);
+                int p;
+                if (pos.isFinishing(e)) p = 2;
+                else if (capture) p = pos.isDoubleDealing(e) ? 1 : Integer.MIN_VALUE;
+                else if (pos.isSafe(e)) p = 0;
+                else p = -pos.sacrificeSize(e);
+                if (p == Integer.MIN_VALUE) continue;
+                anySafe |= p == 0 && !capture;
+                int j = rng.nextInt(n + 1);   // shuffle so equal priors are widened in random order
+                scratch[n] = scratch[j];
+                prior[n] = prior[j];
+                scratch[j] = e;
+                prior[j] = p;
+                n++;
+            }
+            if (anySafe) {   // no box to take: never hand one over while a safe edge is left
+                int kept = 0;
+                for (int i = 0; i < n; i++) {
+                    if (prior[i] < 0) continue;
+                    scratch[kept] = scratch[i];
+                    prior[kept++] = prior[i];
+                }
+                n = kept;
+            }
+            // insertion sort by prior, highest first
+            for (int i = 1; i < n; i++) {
+                int m = scratch[i], p = prior[i], j = i - 1;
+                while (j >= 0 && prior[j] < p) {
+                    scratch[j + 1] = scratch[j];
+                    prior[j + 1] = prior[j];
+                    j--;
+                }
+                scratch[j + 1] = m;
+                prior[j + 1] = p;
+            }
+            node.moves = Arrays.copyOf(scratch, n);
+            node.children = new Node[n];
+        }
+
+        /** HardStrategy-style playout to the end of the game. */
+        private void playout() {
+            while (!pos.isOver()) pos.claim(playoutMove());
+        }
+
+        private int playoutMove() {
+            int e = pos.finishingEdge();
+            if (e >= 0) return e;
+            int n = pos.freeCount();
+            if (safeLeft) {
+                for (int t = 0; t < SAFE_TRIES; t++) {
+                    e = pos.freeAt(rng.nextInt(n));
+                    if (pos.isSafe(e)) return e;
+                }
+                int safe = 0;
+                for (int i = 0; i < n; i++) if (pos.isSafe(pos.freeAt(i))) scratch[safe++] = pos.freeAt(i);
+                if (safe > 0) return scratch[rng.nextInt(safe)];
+                safeLeft = false;
+            }
+            // something has to be handed over: the smallest of a few sampled sacrifices
+            int best = -1, bestSize = Integer.MAX_VALUE;
+            for (int t = 0; t < SACRIFICE_TRIES; t++) {
+                e = pos.freeAt(rng.nextInt(n));
+                int size = pos.sacrificeSize(e);
+                if (size < bestSize) {
+                    best = e;
+                    bestSize = size;
+                }
+            }
+            return best;
+        }
+
+        private void backpropagate(Node leaf) {
+            int p1 = pos.score(1), p2 = pos.score(2);
+            double p1Reward = p1 > p2 ? 1 : p1 == p2 ? 0.5 : 0;
+            for (Node n = leaf; n != null; n = n.parent) {
+                n.visits++;
+                if (n.mover == 1) n.wins += p1Reward;
+                else if (n.mover == 2) n.wins += 1 - p1Reward;
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package zyjfassignment.boardgames.core.strategy;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorMove;
+
+/**
+ * Multi-player Quoridor Strategy (3–4 players): paranoid alpha-beta.
+ *
+ * The searching player maximizes and every other player is assumed to
+ * minimize its score as one coalition, which turns the N-player tree into a
+ * two-sided one where alpha-beta pruning applies. Scores are always from the
+ * searching player's point of view. The evaluation reads every player's
+ * distance field in one pass and compares our race (in turns, counting turn
+ * order) with the best rival's. Opponents only consider walls against us;
+ * we consider walls against the leading rival. Iterative deepening stops at
+ * the time budget (200 ms by default).
+ *
+ * Pondering runs the same search from a human's position on a background
+ * thread (scores stay from our point of view, so the table entries carry
+ * over); the next decision then stops at the depth the last decision that ran
+ * out of time reached.
+ */
+public class ParanoidQuoridorStrategy extends QuoridorSearchStrategy {
+    private final int[] dist = new int[4];
+    private char root;
+
+    public ParanoidQuoridorStrategy() {
+        this(200);
+    }
+
+    /** @param millisPerMove wall-clock budget for one decision */
+    public ParanoidQuoridorStrategy(long millisPerMove) {
+        // scores are from this strategy's own player, so the table is private
+        super(millisPerMove, new TranspositionTable(8), "paranoid ponder");
+    }
+
+    @Override
+    public int chooseMove(QuoridorBoard board, char playerChar) {
+        stopPondering();
+        boolean ponderHit = pondered && root == playerChar;
+        pondered = false;
+        pos = board.copy();
+        pos.setSideToMove(playerChar);
+        root = playerChar;
+        prepare(pos);
+        long start = System.nanoTime();
+        deadline = start + budgetNanos;
+        stopped = false;
+        nodes = 0;
+        if (!ponderHit) tt.newSearch();   // keep the pondered entries current
+
+        int best = fallbackMove(pos);
+        lastDepth = 0;
+        boolean timeUp = false;
+        for (int depth = 1; depth < MAX_PLY; depth++) {
+            int score = searchRoot(depth);
+            if (stopped) {
+                timeUp = true;
+                break;
+            }
+            best = rootBest;
+            lastDepth = depth;
+            if (Math.abs(score) >= WIN - MAX_PLY) break;
+            if (ponderHit && budgetDepth > 0 && depth >= budgetDepth) break;   // as deep as a full budget gets
+            if (System.nanoTime() - start > budgetNanos / 2) {   // the next iteration would not finish
+                timeUp = true;
+                break;
+            }
+        }
+        if (timeUp) budgetDepth = lastDepth;
+        lastNodes = nodes;
+        return best;
+    }
+
+    /**
+     * Search a human's position in the background for the player this
+     * strategy last moved for (the root of the table's scores).
+     */
+    @Override
+    public void startPondering(QuoridorBoard board) {
+        stopPondering();
+        QuoridorBoard start = board.copy();
+        if (root == 0 || start.sideToMove() == root || start.winner() != 0) return;
+        ponderFrom(start);
+    }
+
+    /* ---------------- search ---------------- */
+    private int searchRoot(int depth) {
+        int n = generate(0, TranspositionTable.move(tt.probe(pos.hash())));
+        int alpha = -INF;
+        int bestMove = moves[0][0];
+        for (int i = 0; i < n; i++) {
+            int m = pickNext(0, i, n);
+            pos.applyMove(m);
+            int score = search(depth - 1, 1, alpha, INF);
+            pos.undoMove();
+            if (stopped) return 0;
+            if (score > alpha) {
+                alpha = score;
+                bestMove = m;
+            }
+        }
+        rootBest = bestMove;
+        tt.store(pos.hash(), bestMove, alpha, depth, TranspositionTable.EXACT);
+        return alpha;
+    }
+
+    /** Alpha-beta with the root player maximizing and the coalition minimizing. */
+    @Override
+    int search(int depth, int ply, int alpha, int beta) {
+        if ((++nodes & 15) == 0 && outOfTime()) stopped = true;
+        if (stopped) return 0;
+        char w = pos.winner();
+        if (w != 0) return w == root ? WIN - ply : -(WIN - ply);
+        if (depth <= 0 || ply >= MAX_PLY - 1) return evaluate();
+
+        long key = pos.hash();
+        long entry = tt.probe(key);
+        int cut = cutoff(entry, depth, ply, alpha, beta);
+        if (cut != NO_CUTOFF) return cut;
+
+        boolean maximizing = pos.sideToMove() == root;
+        int alphaOrig = alpha, betaOrig = beta;
+        int n = generate(ply, tableMove(entry));
+        int best = maximizing ? -INF : INF, bestMove = 0;
+        for (int i = 0; i < n; i++) {
+            int m = pickNext(ply, i, n);
+            pos.applyMove(m);
+            int score = search(depth - 1, ply + 1, alpha, beta);
+            pos.undoMove();
+            if (stopped) return 0;
+            if (maximizing ? score > best : score < best) {
+                best = score;
+                bestMove = m;
+            }
+            if (maximizing) alpha = Math.max(alpha, score);
+            else beta = Math.min(beta, score);
+            if (alpha >= beta) {
+                recordCutoff(ply, m, depth);
+                break;
+            }
+        }
+        store(key, bestMove, best, alphaOrig, betaOrig, depth, ply);
+        return best;
+    }
+
+    /**
+     * Fill moves[ply] / order[ply] for the side to move: steps, then candidate
+     * walls (ours against the leading rival, the coalition's against us),
+     * verified by playing them.
+     * @return number of moves
+     */
+    private int generate(int ply, int ttMove) {
+        int[] list = moves[ply];
+        int[] score = order[ply];
+        char me = pos.sideToMove();
+        char target = me == root ? pos.leadingOpponent(root) : root;
+        int n = pos.remainingWalls(me) > 0 ? walls.generate(pos, target, list) : 0;
+        int steps = pos.legalSteps(me, stepCells);
+        for (int i = 0; i < steps; i++) list[n++] = QuoridorMove.step(pos.rowOf(stepCells[i]), pos.colOf(stepCells[i]));
+
+        int myDist = pos.distanceToGoal(me);
+        int targetDist = pos.distanceToGoal(target);
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            int m = list[i];
+            int s;
+            if (QuoridorMove.isWall(m)) {
+                pos.applyMove(m);
+                boolean legal = pos.pathsIntact();
+                int gain = legal ? (pos.distanceToGoal(target) - targetDist) - (pos.distanceToGoal(me) - myDist) : 0;
+                pos.undoMove();
+                if (!legal) continue;
+                s = 400 * gain;
+            } else {
+                int to = pos.cellIndex(QuoridorMove.row(m), QuoridorMove.col(m));
+                s = pos.distanceToGoal(me, to) < myDist ? 1000 : 0;
+            }
+            list[kept] = m;
+            score[kept] = orderScore(ply, m, s, ttMove);
+            kept++;
+        }
+        if (kept == 0) {
+            list[0] = QuoridorMove.PASS;
+            score[0] = 0;
+            kept = 1;
+        }
+        return kept;
+    }
+
+    /* ---------------- evaluation ---------------- */
+    /**
+     * Race in turns from the root player's point of view: each player needs
+     * dist * players + (turns until their move) plies, so turn order breaks ties.
+     */
+    private int evaluate() {
+        int players = pos.getPlayerCount();
+        pos.distancesToGoal(dist);
+        int side = pos.sideToMove() - 'A';
+        int me = root - 'A';
+        int mine = 0, rival = Integer.MAX_VALUE, rivalWalls = 0;
+        for (int s = 0; s < players; s++) {
+            int plies = (int) Math.min((long) dist[s] * players + (s - side + players) % players, 1_000_000);
+            if (s == me) {
+                mine = plies;
+            } else if (plies < rival) {
+                rival = plies;
+                rivalWalls = pos.remainingWalls((char) ('A' + s));
+            }
+        }
+        int race = Math.max(-20_000, Math.min(20_000, 100 * (rival - mine) / players));
+        return race + 15 * (pos.remainingWalls(root) - rivalWalls);
+    }
+}
@@ -0,0 +1,45 @@
+package zyjfassignment.boardgames.core.strategy;
+
+/**
+ * The background thread behind a PonderingStrategy: runs one search task
+ * until it returns or stop() is called. The task polls {@link #halted()}.
+ */
+final class Ponderer {
+    private final String name;
+    private Thread thread;
+    private volatile boolean halted = true;
+
+    Ponderer(String name) {
+        this.name = name;
+    }
+
+    /** Stop any running task, then start search on a new daemon thread. */
+    void start(Runnable search) {
+        stop();
+        halted = false;
+        thread = new Thread(search, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** @return whether the running task should return */
+    boolean halted() {
+        return halted;
+    }
+
+    /** Ask the task to return and wait until it has; afterwards its results are visible to the caller. */
+    void stop() {
+        halted = true;
+        if (thread == null) return;
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
@@ -0,0 +1,24 @@
+package zyjfassignment.boardgames.core.strategy;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+
+/**
+ * A Quoridor strategy that can keep searching while someone else is to move.
+ *
+ * The game calls startPondering before it waits for a human move and
+ * stopPondering once the move has been typed. The background search explores
+ * the human's likely replies, so the next chooseMove finds its position
+ * already searched (transposition table entries or a grown tree) and can
+ * answer sooner. chooseMove stops a running ponder search itself.
+ */
+public interface PonderingStrategy extends QuoridorStrategy {
+    /**
+     * Search the given position in the background until stopPondering.
+     * The board is copied, so the caller may keep playing on it.
+     * @param board current position, side to move set to the player to think for
+     */
+    void startPondering(QuoridorBoard board);
+
+    /** Stop the background search and wait for it; does nothing when not pondering. */
+    void stopPondering();
+}
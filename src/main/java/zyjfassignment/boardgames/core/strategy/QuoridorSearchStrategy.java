@@ -0,0 +1,201 @@
+package zyjfassignment.boardgames.core.strategy;
+
+import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorMove;
+import zyjfassignment.boardgames.quoridor.WallCandidates;
+
+/**
+ * Common part of the Quoridor alpha-beta strategies: an iterative-deepening
+ * search that runs in place on a board copy within a wall-clock budget, with
+ * per-ply move lists, killer moves, a history heuristic and a transposition
+ * table (win scores stored relative to the node), plus pondering on a
+ * background thread. Subclasses supply the root and tree searches, move
+ * generation and evaluation.
+ */
+abstract class QuoridorSearchStrategy implements PonderingStrategy {
+    static final int WIN = 30000;
+    static final int MAX_PLY = 64;
+    static final int INF = 32000;
+    /** cutoff() result when the table entry does not settle the node */
+    static final int NO_CUTOFF = Integer.MIN_VALUE;
+
+    final long budgetNanos;
+    final TranspositionTable tt;
+    final WallCandidates walls = new WallCandidates();
+    final int[] stepCells = new int[4];
+    int[][] moves = new int[0][];
+    int[][] order = new int[0][];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private int[] history = new int[0];
+    private final Ponderer ponderer;
+
+    QuoridorBoard pos;
+    long deadline;
+    boolean stopped;
+    long nodes;
+    int rootBest;
+    int lastDepth;
+    long lastNodes;
+    boolean pondered;              // a ponder search ran since the last decision
+    int budgetDepth;               // depth reached by the last decision that ran out of time
+    private boolean pondering;     // the search runs on the ponder thread
+
+    /** @param millisPerMove wall-clock budget for one decision */
+    QuoridorSearchStrategy(long millisPerMove, TranspositionTable tt, String ponderName) {
+        this.budgetNanos = Math.max(1, millisPerMove) * 1_000_000L;
+        this.tt = tt;
+        this.ponderer = new Ponderer(ponderName);
+    }
+
+    /** Search the position from ply with the given depth left. @return score (the subclass's point of view) */
+    abstract int search(int depth, int ply, int alpha, int beta);
+
+    @Override
+    public void stopPondering() {
+        ponderer.stop();
+    }
+
+    /** Start pondering from start (a private copy) on the background thread. */
+    void ponderFrom(QuoridorBoard start) {
+        pondered = true;
+        ponderer.start(() -> ponder(start));
+    }
+
+    /** Iterative deepening from the position of whoever is to move, until halted; results go to the table. */
+    private void ponder(QuoridorBoard board) {
+        pos = board;
+        prepare(pos);
+        pondering = true;
+        stopped = false;
+        nodes = 0;
+        tt.newSearch();
+        try {
+            for (int depth = 1; depth < MAX_PLY; depth++) {
+                int score = search(depth, 0, -INF, INF);
+                if (stopped || Math.abs(score) >= WIN - MAX_PLY) break;
+            }
+        } finally {
+            pondering = false;
+        }
+    }
+
+    /** @return depth of the last completed iteration */
+    public int lastDepth() {
+        return lastDepth;
+    }
+
+    /** @return nodes visited by the last decision */
+    public long lastNodes() {
+        return lastNodes;
+    }
+
+    /** @return pruning statistics of the wall candidate generator */
+    public String wallStats() {
+        return walls.stats();
+    }
+
+    /* ---------------- transposition table ---------------- */
+
+    /** @return the stored score if entry settles a node with depth left at ply within (alpha, beta), else NO_CUTOFF */
+    static int cutoff(long entry, int depth, int ply, int alpha, int beta) {
+        if (entry == TranspositionTable.MISS || TranspositionTable.depth(entry) < depth) return NO_CUTOFF;
+        int s = fromTable(TranspositionTable.score(entry), ply);
+        int bound = TranspositionTable.bound(entry);
+        if (bound == TranspositionTable.EXACT) return s;
+        if (bound == TranspositionTable.LOWER && s >= beta) return s;
+        if (bound == TranspositionTable.UPPER && s <= alpha) return s;
+        return NO_CUTOFF;
+    }
+
+    /** @return the move stored in entry, 0 if none */
+    static int tableMove(long entry) {
+        return entry == TranspositionTable.MISS ? 0 : TranspositionTable.move(entry);
+    }
+
+    /** Store a node's result, bounded by the window it was searched with. */
+    void store(long key, int bestMove, int best, int alphaOrig, int betaOrig, int depth, int ply) {
+        int bound = best <= alphaOrig ? TranspositionTable.UPPER
+                : best >= betaOrig ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        tt.store(key, bestMove, toTable(best, ply), depth, bound);
+    }
+
+    /** Win scores are stored relative to the node so they stay valid at other plies. */
+    static int toTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) return score + ply;
+        if (score <= -WIN + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    static int fromTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) return score - ply;
+        if (score <= -WIN + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    /* ---------------- move ordering ---------------- */
+
+    /** @return ordering score of move m at ply: its own score s plus history and killer bonuses; the table move first */
+    int orderScore(int ply, int m, int s, int ttMove) {
+        if (m == ttMove && ttMove != QuoridorMove.PASS) return Integer.MAX_VALUE;
+        s += history[historyIndex(m)];
+        if (m == killers[ply][0]) s += 5000;
+        else if (m == killers[ply][1]) s += 4000;
+        return s;
+    }
+
+    /** Remember move m, which caused a beta cutoff at ply with depth left. */
+    void recordCutoff(int ply, int m, int depth) {
+        if (killers[ply][0] != m) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = m;
+        }
+        history[historyIndex(m)] += depth * depth;
+    }
+
+    /** Selection sort step: bring the best remaining move to index i and return it. */
+    int pickNext(int ply, int i, int n) {
+        int[] list = moves[ply];
+        int[] score = order[ply];
+        int best = i;
+        for (int j = i + 1; j < n; j++) if (score[j] > score[best]) best = j;
+        int m = list[best];
+        list[best] = list[i];
+        list[i] = m;
+        int s = score[best];
+        score[best] = score[i];
+        score[i] = s;
+        return m;
+    }
+
+    private int historyIndex(int move) {
+        int cell = pos.cellIndex(QuoridorMove.row(move), QuoridorMove.col(move));
+        return QuoridorMove.type(move) * pos.cellCount() + cell;
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    boolean outOfTime() {
+        return pondering ? ponderer.halted() : System.nanoTime() > deadline;
+    }
+
+    /** Size the move lists for board, age the history and clear the killers. */
+    void prepare(QuoridorBoard board) {
+        int max = board.maxMoves();
+        if (moves.length == 0 || moves[0].length < max) {
+            moves = new int[MAX_PLY][max];
+            order = new int[MAX_PLY][max];
+        }
+        if (history.length != 4 * board.cellCount()) history = new int[4 * board.cellCount()];
+        for (int i = 0; i < history.length; i++) history[i] >>= 2;
+        for (int[] k : killers) k[0] = k[1] = 0;
+    }
+
+    /** A sensible move before any iteration completes: step towards the goal, else anything legal. */
+    int fallbackMove(QuoridorBoard board) {
+        int step = board.nextStepTowardGoal(board.sideToMove());
+        if (step >= 0) return QuoridorMove.step(board.rowOf(step), board.colOf(step));
+        int[] list = moves[0];
+        board.generateMoves(list);
+        return list[0];
+    }
+}
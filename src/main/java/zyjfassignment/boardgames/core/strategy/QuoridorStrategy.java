@@ -1,7 +1,7 @@
-
 package zyjfassignment.boardgames.core.strategy;
 
 import zyjfassignment.boardgames.quoridor.QuoridorBoard;
+import zyjfassignment.boardgames.quoridor.QuoridorMove;
 
 /**
  * Interface for Quoridor AI move selection.
@@ -11,8 +11,15 @@ public interface QuoridorStrategy {
      * Decide what move or wall to play.
      * @param board current board
      * @param playerChar 'A', 'B', etc.
+     * @return encoded move (see QuoridorMove), legal for playerChar
+     */
+    int chooseMove(QuoridorBoard board, char playerChar);
+
+    /**
+     * Console form of chooseMove.
      * @return String command, e.g. "MOVE 4 5" or "WALL V 3 4"
      */
-    String decideMove(QuoridorBoard board, char playerChar);
+    default String decideMove(QuoridorBoard board, char playerChar) {
+        return QuoridorMove.format(chooseMove(board, playerChar));
+    }
 }
-
@@ -0,0 +1,411 @@
+package zyjfassignment.boardgames.core.strategy;
+
+import zyjfassignment.boardgames.dots.DotsBoard;
+import zyjfassignment.boardgames.dots.NimstringEndgame;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Expert Dots & Boxes strategy: iterative-deepening alpha-beta (negamax) that
+ * becomes an exact solver once the depth covers every remaining edge.
+ *
+ * A node's value is the net number of boxes the side to move still gains
+ * (its future boxes minus the opponent's), which depends only on the set of
+ * claimed edges. A move that completes a box keeps the turn, so its value is
+ * made + value(child) with the window shifted instead of negated. Such moves
+ * do not cost depth; below the depth limit only they are searched (stand pat
+ * at 0), so capture runs are always played out. When the depth reaches the
+ * number of remaining edges nothing is cut off and the result is exact; on
+ * small boards (up to about 4x5 boxes late in the game, 3x3 boxes from the
+ * start) that happens within the budget and the strategy plays perfectly,
+ * otherwise it returns the best move of the last completed iteration.
+ *
+ * The search runs in place on the given board (claimEdge / unclaimEdge; the
+ * board is restored). The transposition table is keyed on the claimed-edge
+ * bitset: for boards of at most 64 edges the bitset is first mapped to the
+ * smallest of its images under the grid's symmetries (8 on square grids, 4
+ * otherwise), so mirrored and rotated positions share one entry; stored moves
+ * are kept in that canonical frame. Larger boards hash the bitset words.
+ *
+ * Once no safe edge is left, loony endgames (independent chains and loops)
+ * are not searched: NimstringEndgame gives their exact value at any node and
+ * the optimal move at the root.
+ */
+public class SolverStrategy implements EdgeChoiceStrategy {
+    private static final int INF = 1000;
+    private static final int SOLVED = 255;   // table depth of exact entries
+    private static final Map<Integer, Symmetries> SYMMETRIES = new ConcurrentHashMap<>();
+
+    private final long budgetNanos;
+    private final TranspositionTable tt;
+    private final boolean useSymmetry;
+    private final HardStrategy fallback = new HardStrategy();
+    private final NimstringEndgame endgame;   // null: loony endgames are searched like the rest
+
+    private DotsBoard pos;
+    private int tableSize;         // rows << 16 | cols of the boards the table holds
+    private Symmetries sym;        // null: no canonicalization (switched off or more than 64 edges)
+    private int keySym;            // symmetry that produced the last key()
+    private int[][] moves = new int[0][];
+    private long deadline;
+    private boolean stopped;
+    private int rootBest;
+    private int rootScore;
+
+    private long nodes, probes, hits, solved;
+    private long lastNodes, lastProbes, lastHits, lastSolved, lastNanos;
+    private int lastDepth;
+    private boolean lastExact;
+
+    public SolverStrategy() {
+        this(1000);
+    }
+
+    /** @param millisPerMove wall-clock budget for one decision */
+    public SolverStrategy(long millisPerMove) {
+        this(millisPerMove, 64, true);
+    }
+
+    /**
+     * @param ttMegabytes transposition table size
+     * @param useSymmetry whether positions are canonicalized under the grid's symmetries
+     */
+    public SolverStrategy(long millisPerMove, int ttMegabytes, boolean useSymmetry) {
+        this(millisPerMove, ttMegabytes, useSymmetry, true);
+    }
+
+    /** @param useEndgame whether loony endgames are valued by NimstringEndgame instead of searched */
+    public SolverStrategy(long millisPerMove, int ttMegabytes, boolean useSymmetry, boolean useEndgame) {
+        this.budgetNanos = Math.max(1, millisPerMove) * 1_000_000L;
+        this.tt = new TranspositionTable(ttMegabytes);
+        this.useSymmetry = useSymmetry;
+        this.endgame = useEndgame ? new NimstringEndgame() : null;
+    }
+
+    @Override
+    public int choose(DotsBoard board, int selfId) {
+        if (board.isFull()) return -1;
+        int best = fallback.choose(board, selfId);
+        if (board.remainingEdges() == 1) return best;
+        int loony = endgame == null ? -1 : endgame.bestMove(board);
+        if (loony >= 0) {
+            lastExact = true;
+            lastDepth = board.remainingEdges();
+            lastNodes = lastProbes = lastHits = lastSolved = lastNanos = 0;
+            return loony;
+        }
+        prepare(board, System.nanoTime() + budgetNanos);
+        tt.newSearch();
+        int remaining = board.remainingEdges();
+        for (int depth = 1; ; depth++) {
+            searchRoot(depth);
+            if (stopped) break;
+            best = rootBest;
+            lastDepth = depth;
+            if (depth >= remaining) {
+                lastExact = true;
+                break;
+            }
+        }
+        finish();
+        return best;
+    }
+
+    /**
+     * Solve the position exactly, without a time limit.
+     * @return net boxes the side to move gains from here with best play on both sides
+     */
+    public int solve(DotsBoard board) {
+        if (board.isFull()) return 0;
+        prepare(board, Long.MAX_VALUE);
+        tt.newSearch();
+        searchRoot(board.remainingEdges());
+        lastDepth = board.remainingEdges();
+        lastExact = true;
+        finish();
+        return rootScore;
+    }
+
+    /** @return depth of the last completed iteration */
+    public int lastDepth() {
+        return lastDepth;
+    }
+
+    /** @return whether the last decision was backed by an exact solve */
+    public boolean lastExact() {
+        return lastExact;
+    }
+
+    /** @return nodes visited by the last decision */
+    public long lastNodes() {
+        return lastNodes;
+    }
+
+    /** @return nodes, exact positions (stored as solved) per second and transposition table hit rate of the last decision */
+    public String lastStats() {
+        double secs = Math.max(1e-9, lastNanos / 1e9);
+        return String.format("depth %d%s, %,d nodes (%,.0f/s), %,d solved (%,.0f/s), TT hits %.1f%% of %,d probes",
+                lastDepth, lastExact ? " (exact)" : "", lastNodes, lastNodes / secs, lastSolved, lastSolved / secs,
+                lastProbes == 0 ? 0.0 : 100.0 * lastHits / lastProbes, lastProbes);
+    }
+
+    /* ---------------- search ---------------- */
+    private void prepare(DotsBoard board, long deadline) {
+        pos = board;
+        int edges = board.edgeCount();
+        int size = board.getRows() << 16 | board.getCols();
+        if (size != tableSize) {   // the same bitset means another position on another grid
+            tt.clear();
+            tableSize = size;
+        }
+        sym = useSymmetry && edges <= 64
+                ? SYMMETRIES.computeIfAbsent(size, k -> new Symmetries(board.getRows(), board.getCols()))
+                : null;
+        if (moves.length < edges + 1 || moves[0].length < edges) moves = new int[edges + 1][edges];
+        this.deadline = deadline;
+        stopped = false;
+        nodes = probes = hits = solved = 0;
+        lastDepth = 0;
+        lastExact = false;
+        lastNanos = System.nanoTime();
+    }
+
+    private void finish() {
+        lastNanos = System.nanoTime() - lastNanos;
+        lastNodes = nodes;
+        lastProbes = probes;
+        lastHits = hits;
+        lastSolved = solved;
+        pos = null;
+    }
+
+    private void searchRoot(int depth) {
+        int n = orderedMoves(0, ttMove(tt.probe(key()), keySym), false);
+        int[] list = moves[0];
+        int alpha = -INF;
+        int bestMove = list[0];
+        for (int i = 0; i < n; i++) {
+            int score = child(list[i], depth, 0, alpha, INF);
+            if (stopped) return;
+            if (score > alpha) {
+                alpha = score;
+                bestMove = list[i];
+            }
+        }
+        rootBest = bestMove;
+        rootScore = alpha;
+    }
+
+    /** Play move, score it from the mover's point of view, take it back. */
+    private int child(int move, int depth, int ply, int alpha, int beta) {
+        int made = pos.claimEdge(move, 1);
+        int score = made > 0
+                ? made + search(depth, ply + 1, alpha - made, beta - made)     // same player again
+                : -search(depth - 1, ply + 1, -beta, -alpha);
+        pos.unclaimEdge(move);
+        return score;
+    }
+
+    private int search(int depth, int ply, int alpha, int beta) {
+        if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) stopped = true;
+        if (stopped) return 0;
+        int remaining = pos.remainingEdges();
+        if (remaining == 0) return 0;
+        if (endgame != null && pos.safeMoveCount() == 0) {
+            int v = endgame.value(pos);
+            if (v != NimstringEndgame.NOT_LOONY) return v;
+        }
+        boolean exact = depth >= remaining;
+        boolean quiet = !exact && depth <= 0;
+
+        long key = key();
+        int frame = keySym;
+        long entry = tt.probe(key);
+        probes++;
+        int ttMove = -1;
+        if (entry != TranspositionTable.MISS) {
+            hits++;
+            ttMove = ttMove(entry, frame);
+            if (TranspositionTable.depth(entry) >= (exact ? SOLVED : depth)) {
+                int s = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) return s;
+                if (bound == TranspositionTable.LOWER && s >= beta) return s;
+                if (bound == TranspositionTable.UPPER && s <= alpha) return s;
+            }
+        }
+
+        int alphaOrig = alpha;
+        int best = -INF, bestMove = -1;
+        if (quiet) {   // only captures below the depth limit; declining them scores 0
+            best = 0;
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) return best;
+        }
+        int n = orderedMoves(ply, ttMove, quiet);
+        int[] list = moves[ply];
+        for (int i = 0; i < n; i++) {
+            int score = child(list[i], depth, ply, alpha, beta);
+            if (stopped) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = list[i];
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+        int bound = best <= alphaOrig ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        if (exact) solved++;
+        tt.store(key, bestMove < 0 ? 0 : toFrame(bestMove, frame) + 1, best,
+                exact ? SOLVED : Math.min(SOLVED - 1, Math.max(0, depth)), bound);
+        return best;
+    }
+
+    /**
+     * Fill moves[ply]: the table move, then box-completing moves, then safe
+     * moves, then the rest (those hand the opponent a box). With capturesOnly
+     * the list stops after the box-completing moves. A capture that leaves no
+     * box with three sides behind is always worth taking at once (declining
+     * only matters at the end of a chain, for a double-dealing move), so it
+     * is returned as the only move.
+     * @return number of moves
+     */
+    private int orderedMoves(int ply, int ttMove, boolean capturesOnly) {
+        int[] list = moves[ply];
+        int n = pos.availableEdgeCount();
+        int head = 0, tail = n;
+        for (int i = 0; i < n; i++) {   // captures to the front, risky moves to the back
+            int e = pos.availableEdgeAt(i);
+            if (pos.isFinishingMove(e)) {
+                if (!pos.wouldCreateThirdEdge(e)) {   // a capture that opens nothing: taking it is optimal
+                    list[0] = e;
+                    return 1;
+                }
+                list[head++] = e;
+            } else if (!pos.isSafeMove(e)) {
+                list[--tail] = e;
+            }
+        }
+        int captures = head;
+        if (capturesOnly) {
+            n = captures;
+        } else {
+            for (int i = 0; i < pos.availableEdgeCount(); i++) {
+                int e = pos.availableEdgeAt(i);
+                if (!pos.isFinishingMove(e) && pos.isSafeMove(e)) list[head++] = e;
+            }
+        }
+        if (ttMove >= 0) {
+            for (int i = 0; i < n; i++) {
+                if (list[i] == ttMove) {
+                    System.arraycopy(list, 0, list, 1, i);
+                    list[0] = ttMove;
+                    break;
+                }
+            }
+        }
+        return n;
+    }
+
+    /* ---------------- keys and symmetry ---------------- */
+
+    /** @return table key of the current position; sets keySym to the symmetry that produced it */
+    private long key() {
+        keySym = 0;
+        if (sym != null) return mix(sym.canonical(pos.claimedWord(0), this));
+        long h = 0;
+        for (int w = 0; w << 6 < pos.edgeCount(); w++) h = mix(h ^ pos.claimedWord(w) ^ w);
+        return h;
+    }
+
+    /** @return the move of a table entry in the current position's frame, or -1 */
+    private int ttMove(long entry, int frame) {
+        int m = TranspositionTable.move(entry) - 1;
+        if (m < 0) return -1;
+        return sym == null ? m : sym.inverse[frame][m];
+    }
+
+    private int toFrame(int move, int frame) {
+        return sym == null ? move : sym.perm[frame][move];
+    }
+
+    /** splitmix64 finalizer: a bijection, so distinct bitsets never share a key */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Edge permutations of one grid size and byte tables that apply them to a bitset. */
+    private static final class Symmetries {
+        final int[][] perm;       // [s][edge] image of the edge under symmetry s
+        final int[][] inverse;    // [s][image] edge
+        private final long[][][] table;   // [s][byte][value] image of that byte's edges
+
+        Symmetries(int rows, int cols) {
+            int count = rows == cols ? 8 : 4;
+            int h = rows * (cols - 1), edges = h + (rows - 1) * cols;
+            perm = new int[count][edges];
+            inverse = new int[count][edges];
+            table = new long[count][(edges + 7) >>> 3][256];
+            for (int s = 0; s < count; s++) {
+                for (int e = 0; e < edges; e++) {
+                    int r1, c1, r2, c2;
+                    if (e < h) {
+                        r1 = r2 = e / (cols - 1);
+                        c1 = e % (cols - 1);
+                        c2 = c1 + 1;
+                    } else {
+                        r1 = (e - h) / cols;
+                        r2 = r1 + 1;
+                        c1 = c2 = (e - h) % cols;
+                    }
+                    int a = dot(s, r1, c1, rows, cols), b = dot(s, r2, c2, rows, cols);
+                    int ar = a >>> 16, ac = a & 0xFFFF, br = b >>> 16, bc = b & 0xFFFF;
+                    int image = ar == br ? ar * (cols - 1) + Math.min(ac, bc) : h + Math.min(ar, br) * cols + ac;
+                    perm[s][e] = image;
+                    inverse[s][image] = e;
+                }
+                for (int k = 0; k < table[s].length; k++) {
+                    for (int v = 0; v < 256; v++) {
+                        long bits = 0;
+                        for (int j = 0; j < 8; j++) {
+                            int e = 8 * k + j;
+                            if ((v >>> j & 1) != 0 && e < edges) bits |= 1L << perm[s][e];
+                        }
+                        table[s][k][v] = bits;
+                    }
+                }
+            }
+        }
+
+        /** Image of dot (r,c) under symmetry s: bit 0 mirrors rows, bit 1 columns, bit 2 transposes (square grids). */
+        private static int dot(int s, int r, int c, int rows, int cols) {
+            if ((s & 1) != 0) r = rows - 1 - r;
+            if ((s & 2) != 0) c = cols - 1 - c;
+            if ((s & 4) != 0) {
+                int t = r;
+                r = c;
+                c = t;
+            }
+            return r << 16 | c;
+        }
+
+        /** @return the smallest image of the bitset (unsigned); the symmetry used goes to owner.keySym */
+        long canonical(long bits, SolverStrategy owner) {
+            long best = bits;
+            for (int s = 1; s < table.length; s++) {
+                long[][] t = table[s];
+                long image = 0;
+                for (int k = 0; k < t.length; k++) image |= t[k][(int) (bits >>> (k << 3)) & 0xFF];
+                if (Long.compareUnsigned(image, best) < 0) {
+                    best = image;
+                    owner.keySym = s;
+                }
+            }
+            return best;
+        }
+    }
+}
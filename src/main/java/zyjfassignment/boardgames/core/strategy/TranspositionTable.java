@@ -0,0 +1,108 @@
+package zyjfassignment.boardgames.core.strategy;
+
+/**
+ * Fixed-size, lock-free transposition table keyed by 64-bit position hashes.
+ *
+ * Each bucket holds two entries: a depth-preferred slot that keeps the deepest
+ * result of the current search, and an always-replace slot for everything else.
+ * Entries are stored as (key ^ data, data) pairs, so a reader that sees a torn
+ * write from another thread simply misses instead of using a corrupt entry;
+ * several searcher threads can share one table without locks.
+ *
+ * Packed data layout: move 0-19, score 20-35 (signed), depth 36-43,
+ * bound 44-45, age 46-53, bit 63 marks a used entry.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 0, LOWER = 1, UPPER = 2;
+    /** probe() result when nothing is stored for the key. */
+    public static final long MISS = 0L;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int age;
+
+    /** @param megabytes approximate memory budget (16 bytes per entry) */
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(2L, (long) megabytes * 1024 * 1024 / 16);
+        int buckets = Integer.highestOneBit((int) Math.min(1 << 28, entries / 2));
+        keys = new long[buckets * 2];
+        data = new long[buckets * 2];
+        bucketMask = buckets - 1;
+    }
+
+    /** Start a new search: older entries become preferred victims for replacement. */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+    }
+
+    /** @return packed entry for the key, or MISS */
+    public long probe(long key) {
+        int i = index(key);
+        long d = data[i];
+        if ((keys[i] ^ d) == key && d != 0) return d;
+        d = data[i + 1];
+        if ((keys[i + 1] ^ d) == key && d != 0) return d;
+        return MISS;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        long d = pack(move, score, depth, bound, age);
+        int i = index(key);
+        long old = data[i];
+        boolean sameKey = (keys[i] ^ old) == key;
+        if (old == 0 || sameKey || ageOf(old) != age || depth >= depth(old)) {
+            data[i] = d;
+            keys[i] = key ^ d;
+        } else {
+            data[i + 1] = d;
+            keys[i + 1] = key ^ d;
+        }
+    }
+
+    /** @return used entries in a sample of the first 1000 slots, per mille */
+    public int hashfull() {
+        int n = Math.min(1000, data.length), used = 0;
+        for (int i = 0; i < n; i++) if (data[i] != 0 && ageOf(data[i]) == age) used++;
+        return used * 1000 / n;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) << 1;
+    }
+
+    /* ---------------- packed entry accessors ---------------- */
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xFFFFFL)
+                | ((long) (score & 0xFFFF) << 20)
+                | ((long) (Math.max(0, Math.min(255, depth))) << 36)
+                | ((long) bound << 44)
+                | ((long) age << 46)
+                | (1L << 63);
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 20);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 36) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 44) & 3;
+    }
+
+    private static int ageOf(long entry) {
+        return (int) (entry >>> 46) & 0xFF;
+    }
+}
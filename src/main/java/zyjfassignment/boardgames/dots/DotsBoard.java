@@ -18,11 +18,33 @@ import static zyjfassignment.boardgames.core.ui.TextUtil.*;
  * Conventions:
  *  - Horizontal edges ids: [0, H)
  *  - Vertical edges ids:   [H, H+V)
+ *
+ * Storage: a claimed-edge bitset (plus one bit per edge for "claimed by
+ * player 2"), a claimed-edge counter per box that claimEdge updates, and the
+ * edge-to-box tables of DotsTopology, shared by all boards of the same size.
+ * Box index = br * (C-1) + bc.
+ *
+ * Free edges are also kept in an indexed set (free[0 .. freeCount) with the
+ * position of every edge), so claimEdge / unclaimEdge move an edge in or out
+ * in O(1); scores and the remaining-edge count are running counters. Search
+ * code walks legal moves without allocating through availableEdgeCount /
+ * availableEdgeAt (any order) or nextAvailableEdge (ascending ids).
+ *
+ * DotsChains keeps the chain / loop decomposition in step with every claim,
+ * so long-chain counts, safe-move counts and "chain containing box" are O(1).
  */
 public class DotsBoard extends GridBoard {
     private final int H, V;          // total horizontal / vertical edges
-    private final Edge[] edges;      // edges[0 .. H+V-1]
-    private final int[][] boxOwner;  // (R-1) x (C-1) 0=none, 1/2=player
+    private final DotsTopology topo; // shared edge <-> box tables
+    private final long[] claimed;    // bit per edge id
+    private final long[] byP2;       // claimed edges owned by player 2
+    private final byte[] boxEdges;   // [box] claimed edges around it (0..4)
+    private final byte[] boxOwner;   // [box] 0=none, 1/2=player
+    private final int[] free;        // free[0 .. freeCount) = unclaimed edge ids, claimed ones after
+    private final int[] slotOf;      // [edge] index of the edge in free
+    private int freeCount;
+    private final int[] score = new int[3];   // [player] boxes owned
+    private final DotsChains chains;          // chain / loop components, updated on claim / unclaim
     private final int cellW = 5;     // width for each box cell
     private final int vSlotW;        // width reserved for vertical edge column (dynamic)
 
@@ -30,45 +52,66 @@ public class DotsBoard extends GridBoard {
         super(rows, cols);
         H = R * (C - 1);
         V = (R - 1) * C;
-        edges = new Edge[H + V];
+        topo = DotsTopology.forSize(R, C);
+        claimed = new long[(H + V + 63) >>> 6];
+        byP2 = new long[claimed.length];
+        boxEdges = new byte[topo.boxCount];
+        boxOwner = new byte[topo.boxCount];
+        free = new int[H + V];
+        slotOf = new int[H + V];
+        for (int e = 0; e < H + V; e++) free[e] = slotOf[e] = e;
+        freeCount = H + V;
+        chains = new DotsChains(topo, boxEdges, claimed);
 
         // Compute vertical slot width so that vertical edge ids are fully visible
         int maxIdLen = String.valueOf(H + V - 1).length();
         vSlotW = Math.max(3, maxIdLen); // at least 3 for good readability
-
-        // Build horizontal edges
-        int id = 0;
-        for (int r = 0; r < R; r++) {
-            for (int c = 0; c < C - 1; c++) {
-                edges[id] = new Edge(id, true, r, c);
-                id++;
-            }
-        }
-        // Build vertical edges
-        for (int r = 0; r < R - 1; r++) {
-            for (int c = 0; c < C; c++) {
-                edges[id] = new Edge(id, false, r, c);
-                id++;
-            }
-        }
-        boxOwner = new int[R - 1][C - 1];
     }
 
-    /** @return list of all unclaimed edge ids */
+    /** @return list of all unclaimed edge ids (ascending); allocates, see availableEdgeAt / nextAvailableEdge */
     public List<Integer> getAvailableEdgeIds() {
-        List<Integer> list = new ArrayList<>();
-        for (Edge e : edges) if (!e.isClaimed()) list.add(e.id());
+        List<Integer> list = new ArrayList<>(freeCount);
+        for (int e = nextAvailableEdge(0); e >= 0; e = nextAvailableEdge(e + 1)) list.add(e);
         return list;
     }
 
+    /** @return number of unclaimed edges */
+    public int availableEdgeCount() { return freeCount; }
+
+    /** @return the i-th unclaimed edge, 0 &lt;= i &lt; availableEdgeCount(); the order changes as edges are claimed */
+    public int availableEdgeAt(int i) { return free[i]; }
+
+    /** @return the smallest unclaimed edge id &gt;= from, or -1 if there is none */
+    public int nextAvailableEdge(int from) {
+        if (from >= H + V) return -1;
+        int w = from >>> 6;
+        long bits = ~claimed[w] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                int e = (w << 6) + Long.numberOfTrailingZeros(bits);
+                return e < H + V ? e : -1;
+            }
+            if (++w == claimed.length) return -1;
+            bits = ~claimed[w];
+        }
+    }
+
+    /** @return total number of edges, H + V */
+    public int edgeCount() { return H + V; }
+
+    /** @return 64 claimed-edge bits: bit k of word w is edge 64 * w + k (w &lt; (edgeCount() + 63) / 64) */
+    public long claimedWord(int w) { return claimed[w]; }
+
+    /** @return whether the edge has been claimed */
+    public boolean isClaimed(int edgeId) { return (claimed[edgeId >>> 6] & (1L << edgeId)) != 0; }
+
     /** @return whether claiming this edge would immediately complete at least one box */
     public boolean isFinishingMove(int edgeId) { return boxesCompletedIfClaim(edgeId) > 0; }
 
     /** @return whether claiming this edge would create a box with exactly 3 claimed edges (risky) */
     public boolean wouldCreateThirdEdge(int edgeId) {
-        for (int[] b : boxesTouchedByEdge(edgeId))
-            if (edgesClaimedCountForBox(b[0], b[1]) == 2) return true;
-        return false;
+        int a = topo.boxA[edgeId], b = topo.boxB[edgeId];
+        return (a >= 0 && boxEdges[a] == 2) || (b >= 0 && boxEdges[b] == 2);
     }
 
     /**
@@ -76,34 +119,86 @@ public class DotsBoard extends GridBoard {
      * @return number of boxes completed by this move, or -1 if the move is illegal.
      */
     public int claimEdge(int edgeId, int playerId) {
-        if (edgeId < 0 || edgeId >= edges.length) return -1;
-        Edge e = edges[edgeId];
-        if (e.isClaimed()) return -1;
-        e.setOwner(playerId);
-        int made = 0;
-        for (int[] b : boxesTouchedByEdge(edgeId)) {
-            if (edgesClaimedCountForBox(b[0], b[1]) == 4 && boxOwner[b[0]][b[1]] == 0) {
-                boxOwner[b[0]][b[1]] = playerId; made++;
-            }
-        }
+        if (edgeId < 0 || edgeId >= H + V) return -1;
+        if (isClaimed(edgeId)) return -1;
+        if (playerId != 1 && playerId != 2) throw new IllegalArgumentException("playerId must be 1 or 2");
+        chains.beforeChange(edgeId);
+        claimed[edgeId >>> 6] |= 1L << edgeId;
+        if (playerId == 2) byP2[edgeId >>> 6] |= 1L << edgeId;
+        moveFreeSlot(edgeId, --freeCount);
+        int made = countEdge(topo.boxA[edgeId], playerId) + countEdge(topo.boxB[edgeId], playerId);
+        chains.afterChange(edgeId);
         return made;
     }
 
-    /** @return whether all edges have been claimed */
-    public boolean isFull() {
-        for (Edge e : edges) if (!e.isClaimed()) return false;
-        return true;
+    /**
+     * Take back a claimed edge (in any order; search code undoes in reverse).
+     * Boxes it had completed lose their owner again.
+     * @return number of boxes that lost their owner, or -1 if the edge was not claimed
+     */
+    public int unclaimEdge(int edgeId) {
+        if (edgeId < 0 || edgeId >= H + V || !isClaimed(edgeId)) return -1;
+        chains.beforeChange(edgeId);
+        claimed[edgeId >>> 6] &= ~(1L << edgeId);
+        byP2[edgeId >>> 6] &= ~(1L << edgeId);
+        moveFreeSlot(edgeId, freeCount++);
+        int lost = uncountEdge(topo.boxA[edgeId]) + uncountEdge(topo.boxB[edgeId]);
+        chains.afterChange(edgeId);
+        return lost;
     }
 
+    /** @return whether all edges have been claimed */
+    public boolean isFull() { return freeCount == 0; }
+
+    /** @return number of edges not yet claimed */
+    public int remainingEdges() { return freeCount; }
+
     /** @return total number of boxes owned by a given player */
-    public int scoreForPlayer(int id) {
-        int s = 0;
-        for (int r = 0; r < R - 1; r++)
-            for (int c = 0; c < C - 1; c++)
-                if (boxOwner[r][c] == id) s++;
-        return s;
+    public int scoreForPlayer(int id) { return id == 1 || id == 2 ? score[id] : 0; }
+
+    /** @return a compact copy of this position (see DotsState) with the given player (1/2) to move */
+    public DotsState state(int toMove) {
+        return new DotsState(topo, claimed, boxEdges, score[1], score[2], toMove);
     }
 
+    // ---- Chains and loops (see DotsChains); all O(1) ----
+
+    /** @return id of the chain or loop containing box (br,bc), or -1 if the box is not in one (degree != 2) */
+    public int chainAt(int br, int bc) { return chains.componentOf(topo.box(br, bc)); }
+
+    /** @return number of boxes in the chain or loop with this id (see chainAt) */
+    public int chainSize(int chainId) { return chains.size(chainId); }
+
+    /** @return whether the component with this id is a loop rather than a chain */
+    public boolean isLoop(int chainId) { return chains.isLoop(chainId); }
+
+    /** @return number of chains (any length, loops excluded) */
+    public int chainCount() { return chains.chainCount(); }
+
+    /** @return number of chains of 3 or more boxes */
+    public int longChainCount() { return chains.longChainCount(); }
+
+    /** @return number of loops */
+    public int loopCount() { return chains.loopCount(); }
+
+    /** @return number of unclaimed edges that neither complete a box nor give one a third edge */
+    public int safeMoveCount() { return chains.safeEdgeCount(); }
+
+    /** @return whether claiming this unclaimed edge neither completes a box nor gives one a third edge */
+    public boolean isSafeMove(int edgeId) { return chains.isSafe(edgeId); }
+
+    /** @return number of claimed edges around box (br,bc) */
+    public int claimedEdgesOfBox(int br, int bc) { return boxEdges[topo.box(br, bc)]; }
+
+    // ---- package-level access for the endgame evaluator ----
+    DotsTopology topology() { return topo; }
+
+    /** @return claimed edges around box (index br * (C-1) + bc) */
+    int claimedAround(int box) { return boxEdges[box]; }
+
+    /** @return chain / loop id of box, or -1 */
+    int componentOf(int box) { return chains.componentOf(box); }
+
     /** Pretty-print the board using aligned cells. */
     @Override public void print() {
         int maxIdLen = String.valueOf(H + V - 1).length();
@@ -116,10 +211,9 @@ public class DotsBoard extends GridBoard {
                 row1.append(" •");
                 if (c < C - 1) {
                     int eid = hEdgeId(r, c);
-                    Edge e = edges[eid];
-                    if (e.isClaimed()) {
-                        // 原: row1.append(color(e.owner())).append("─".repeat(cellWAdj)).append(RESET);
-                        row1.append(color(e.owner())).append(TextUtil.rep("─", cellWAdj)).append(RESET);
+                    if (isClaimed(eid)) {
+                        // 原: row1.append(color(owner(eid))).append("─".repeat(cellWAdj)).append(RESET);
+                        row1.append(color(owner(eid))).append(TextUtil.rep("─", cellWAdj)).append(RESET);
                     } else {
                         row1.append(padCenter(String.valueOf(eid), cellWAdj));
                     }
@@ -133,19 +227,18 @@ public class DotsBoard extends GridBoard {
             StringBuilder row2 = new StringBuilder();
             for (int c = 0; c < C; c++) {
                 int ve = vEdgeId(r, c);
-                Edge v = edges[ve];
 
-                if (v.isClaimed()) {
+                if (isClaimed(ve)) {
                     // Use glyphs instead of coloring digits: P1='┃', P2='║'
-                    String glyph = (v.owner() == 1) ? "┃" : "║";
-                    row2.append(padCenterAnsi(color(v.owner()) + glyph + RESET, vSlotW));
+                    String glyph = (owner(ve) == 1) ? "┃" : "║";
+                    row2.append(padCenterAnsi(color(owner(ve)) + glyph + RESET, vSlotW));
                 } else {
                     // Show FULL vertical edge id centered in the vertical slot
                     row2.append(padCenter(String.valueOf(ve), vSlotW-1));
                 }
 
                 if (c < C - 1) {
-                    int owner = boxOwner[r][c];
+                    int owner = boxOwner[topo.box(r, c)];
                     String center = (owner == 0) ? "" : (color(owner) + "●" + RESET);
                     row2.append(padCenterAnsi(center, cellWAdj));
                 }
@@ -159,41 +252,46 @@ public class DotsBoard extends GridBoard {
     private int hEdgeId(int r, int c) { return r * (C - 1) + c; }
     private int vEdgeId(int r, int c) { return H + r * C + c; }
 
-    /** @return list of (br,bc) boxes adjacent to the given edge */
-    private List<int[]> boxesTouchedByEdge(int edgeId) {
-        List<int[]> res = new ArrayList<>();
-        if (edgeId < H) {
-            int r = edgeId / (C - 1), c = edgeId % (C - 1);
-            if (r > 0) res.add(new int[]{r - 1, c});
-            if (r < R - 1) res.add(new int[]{r, c});
-        } else {
-            int local = edgeId - H;
-            int r = local / C, c = local % C;
-            if (c > 0) res.add(new int[]{r, c - 1});
-            if (c < C - 1) res.add(new int[]{r, c});
+    /** @return 0 if unclaimed, else the claiming player (1/2) */
+    private int owner(int edgeId) {
+        if (!isClaimed(edgeId)) return 0;
+        return (byP2[edgeId >>> 6] & (1L << edgeId)) != 0 ? 2 : 1;
+    }
+
+    /** Count one more claimed edge around box (if any); @return 1 if that completed it for playerId */
+    private int countEdge(int box, int playerId) {
+        if (box < 0) return 0;
+        if (++boxEdges[box] == 4 && boxOwner[box] == 0) {
+            boxOwner[box] = (byte) playerId;
+            score[playerId]++;
+            return 1;
         }
-        return res;
+        return 0;
     }
 
-    /** @return how many edges of a box are already claimed */
-    private int edgesClaimedCountForBox(int br, int bc) {
-        int top    = hEdgeId(br, bc);
-        int bottom = hEdgeId(br + 1, bc);
-        int left   = vEdgeId(br, bc);
-        int right  = vEdgeId(br, bc + 1);
-        int cnt = 0;
-        if (edges[top].isClaimed()) cnt++;
-        if (edges[bottom].isClaimed()) cnt++;
-        if (edges[left].isClaimed()) cnt++;
-        if (edges[right].isClaimed()) cnt++;
-        return cnt;
+    /** Count one claimed edge less around box (if any); @return 1 if the box lost its owner */
+    private int uncountEdge(int box) {
+        if (box < 0) return 0;
+        if (boxEdges[box]-- == 4 && boxOwner[box] != 0) {
+            score[boxOwner[box]]--;
+            boxOwner[box] = 0;
+            return 1;
+        }
+        return 0;
+    }
+
+    /** Swap edge into position slot of free (the boundary between free and claimed edges). */
+    private void moveFreeSlot(int edgeId, int slot) {
+        int other = free[slot], from = slotOf[edgeId];
+        free[from] = other;
+        slotOf[other] = from;
+        free[slot] = edgeId;
+        slotOf[edgeId] = slot;
     }
 
     /** @return number of boxes that would be completed if the edge were claimed */
     private int boxesCompletedIfClaim(int edgeId) {
-        int made = 0;
-        for (int[] b : boxesTouchedByEdge(edgeId))
-            if (edgesClaimedCountForBox(b[0], b[1]) == 3) made++;
-        return made;
+        int a = topo.boxA[edgeId], b = topo.boxB[edgeId];
+        return (a >= 0 && boxEdges[a] == 3 ? 1 : 0) + (b >= 0 && boxEdges[b] == 3 ? 1 : 0);
     }
 }
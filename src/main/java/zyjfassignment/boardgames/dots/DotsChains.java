@@ -0,0 +1,212 @@
+package zyjfassignment.boardgames.dots;
+
+/**
+ * Chain / loop decomposition of a DotsBoard, kept up to date on every claim.
+ *
+ * In the strings-and-coins view a box's degree is its number of unclaimed
+ * edges. Components are maximal sets of degree-2 boxes joined by unclaimed
+ * edges: a LOOP if every member's two edges lead to other members, otherwise
+ * a CHAIN (its ends run into the border, a completed-box side or a box of
+ * another degree). A long chain has at least 3 boxes.
+ *
+ * Only boxes next to the changed edge change degree, so an update dissolves
+ * the components touching the ones that enter or leave degree 2 and rebuilds
+ * those boxes by walking their chains: O(length of the affected chains),
+ * never a board scan. Counters
+ * (chains, long chains, loops, safe edges) and per-box component ids make
+ * every query O(1).
+ *
+ * A safe edge is an unclaimed edge whose boxes all have at most one claimed
+ * edge, i.e. claiming it neither completes a box nor hands one over.
+ */
+final class DotsChains {
+    private final DotsTopology topo;
+    private final byte[] boxEdges;      // the board's claimed-edge counters (shared, read only here)
+    private final long[] claimed;       // the board's claimed-edge bitset (shared, read only here)
+
+    private final int[] comp;           // [box] component id, -1 = not in a component
+    private final int[] compSize;       // [id]
+    private final boolean[] compLoop;   // [id]
+    private final int[] freeIds;        // unused component ids (stack)
+    private int freeIdCount;
+    private int chains, longChains, loops;
+
+    private final boolean[] safe;       // [edge]
+    private int safeCount;
+
+    private final int[] touched;        // boxes to rebuild after the change
+    private int touchedCount;
+    private final int[] mark;           // [box] == markGen: already in touched
+    private int markGen;
+    private final int[] stack;          // walk scratch
+    private boolean rebuildA, rebuildB; // the change moves box A / B into or out of degree 2
+
+    DotsChains(DotsTopology topo, byte[] boxEdges, long[] claimed) {
+        this.topo = topo;
+        this.boxEdges = boxEdges;
+        this.claimed = claimed;
+        int boxes = topo.boxCount;
+        comp = new int[boxes];
+        java.util.Arrays.fill(comp, -1);
+        compSize = new int[boxes];
+        compLoop = new boolean[boxes];
+        freeIds = new int[boxes];
+        for (int i = 0; i < boxes; i++) freeIds[i] = boxes - 1 - i;
+        freeIdCount = boxes;
+        touched = new int[boxes];
+        mark = new int[boxes];
+        stack = new int[boxes];
+        safe = new boolean[topo.edgeCount];
+        for (int e = 0; e < topo.edgeCount; e++) updateSafe(e);
+    }
+
+    /* ---------------- queries, all O(1) ---------------- */
+    int componentOf(int box) { return comp[box]; }
+    int size(int id) { return compSize[id]; }
+    boolean isLoop(int id) { return compLoop[id]; }
+    int chainCount() { return chains; }
+    int longChainCount() { return longChains; }
+    int loopCount() { return loops; }
+    int safeEdgeCount() { return safeCount; }
+    boolean isSafe(int edge) { return safe[edge]; }
+
+    /* ---------------- updates ---------------- */
+    /**
+     * Call before the board claims or releases edge: dissolves the components
+     * that may change. Components only change around a box that enters or
+     * leaves degree 2; a capture (degree 1 to 0) or an opening move (4 to 3)
+     * leaves them alone.
+     */
+    void beforeChange(int edge) {
+        touchedCount = 0;
+        if (++markGen == 0) {
+            java.util.Arrays.fill(mark, 0);
+            markGen = 1;
+        }
+        int delta = isClaimed(edge) ? -1 : 1;
+        int a = topo.boxA[edge], b = topo.boxB[edge];
+        rebuildA = a >= 0 && (boxEdges[a] == 2 || boxEdges[a] + delta == 2);
+        rebuildB = b >= 0 && (boxEdges[b] == 2 || boxEdges[b] + delta == 2);
+        if (rebuildA) dissolveAround(a);
+        if (rebuildB) dissolveAround(b);
+    }
+
+    /** Call after the board has updated its bitset and box counters for edge. */
+    void afterChange(int edge) {
+        int a = topo.boxA[edge], b = topo.boxB[edge];
+        if (rebuildA) touchAround(a);
+        if (rebuildB) touchAround(b);
+        for (int i = 0; i < touchedCount; i++) {
+            int box = touched[i];
+            if (comp[box] < 0 && boxEdges[box] == 2) build(box);
+        }
+        updateSafe(edge);
+        if (a >= 0) for (int k = 0; k < 4; k++) updateSafe(topo.boxEdges[4 * a + k]);
+        if (b >= 0) for (int k = 0; k < 4; k++) updateSafe(topo.boxEdges[4 * b + k]);
+    }
+
+    private void dissolveAround(int box) {
+        dissolve(box);
+        for (int k = 0; k < 4; k++) {
+            int n = neighbourVia(box, k);
+            if (n >= 0) dissolve(n);
+        }
+    }
+
+    private void touchAround(int box) {
+        touch(box);
+        for (int k = 0; k < 4; k++) {
+            int n = neighbourVia(box, k);
+            if (n >= 0) touch(n);
+        }
+    }
+
+    /** Remove the component containing box (if any) from the counters; its boxes are rebuilt later. */
+    private void dissolve(int box) {
+        touch(box);
+        int id = comp[box];
+        if (id < 0) return;
+        int top = 0;
+        stack[top++] = box;
+        comp[box] = -1;
+        while (top > 0) {
+            int u = stack[--top];
+            touch(u);
+            for (int k = 0; k < 4; k++) {
+                int n = neighbourVia(u, k);
+                if (n >= 0 && comp[n] == id) {
+                    comp[n] = -1;
+                    stack[top++] = n;
+                }
+            }
+        }
+        count(id, -1);
+        freeIds[freeIdCount++] = id;
+    }
+
+    /** Walk the degree-2 boxes connected to start and register them as one component. */
+    private void build(int start) {
+        int id = freeIds[--freeIdCount];
+        int size = 0;
+        boolean loop = true;
+        int top = 0;
+        stack[top++] = start;
+        comp[start] = id;
+        while (top > 0) {
+            int u = stack[--top];
+            size++;
+            for (int k = 0; k < 4; k++) {
+                int e = topo.boxEdges[4 * u + k];
+                if (isClaimed(e)) continue;
+                int n = other(e, u);
+                if (n < 0 || boxEdges[n] != 2) {
+                    loop = false;
+                } else if (comp[n] < 0) {
+                    comp[n] = id;
+                    stack[top++] = n;
+                }
+            }
+        }
+        compSize[id] = size;
+        compLoop[id] = loop;
+        count(id, +1);
+    }
+
+    private void count(int id, int delta) {
+        if (compLoop[id]) {
+            loops += delta;
+        } else {
+            chains += delta;
+            if (compSize[id] >= 3) longChains += delta;
+        }
+    }
+
+    private void updateSafe(int e) {
+        int a = topo.boxA[e], b = topo.boxB[e];
+        boolean s = !isClaimed(e) && (a < 0 || boxEdges[a] <= 1) && (b < 0 || boxEdges[b] <= 1);
+        if (s != safe[e]) {
+            safe[e] = s;
+            safeCount += s ? 1 : -1;
+        }
+    }
+
+    /* ---------------- helpers ---------------- */
+    private void touch(int box) {
+        if (mark[box] == markGen) return;
+        mark[box] = markGen;
+        touched[touchedCount++] = box;
+    }
+
+    /** @return the box across side k of box if that edge is unclaimed, else -1 (also -1 for the border) */
+    private int neighbourVia(int box, int k) {
+        int e = topo.boxEdges[4 * box + k];
+        return isClaimed(e) ? -1 : other(e, box);
+    }
+
+    private int other(int edge, int box) {
+        int a = topo.boxA[edge];
+        return a == box ? topo.boxB[edge] : a;
+    }
+
+    private boolean isClaimed(int e) { return (claimed[e >>> 6] & (1L << e)) != 0; }
+}
@@ -0,0 +1,188 @@
+package zyjfassignment.boardgames.dots;
+
+/**
+ * Compact, copyable Dots & Boxes position for playouts: claimed-edge bitset,
+ * per-box edge counters, the free-edge set, scores and the player to move.
+ * No ownership, chain tracking or printing, so copyFrom is a few array
+ * copies and claim is O(1).
+ *
+ * Boxes that reach three claimed edges are pushed on a stack, so a box that
+ * can be taken is found without scanning the board (entries whose box has
+ * since been completed are dropped lazily).
+ */
+public final class DotsState {
+    private final DotsTopology topo;
+    private final long[] claimed;
+    private final byte[] boxEdges;
+    private final int[] free;          // free[0 .. freeCount) = unclaimed edge ids
+    private final int[] slotOf;        // [edge] index of the edge in free
+    private int freeCount;
+    private final int[] threeSided;    // stack of boxes that had three claimed edges
+    private int threeCount;
+    private final int[] score = new int[3];
+    private int toMove;
+
+    DotsState(DotsTopology topo, long[] claimed, byte[] boxEdges, int scoreP1, int scoreP2, int toMove) {
+        this.topo = topo;
+        this.claimed = claimed.clone();
+        this.boxEdges = boxEdges.clone();
+        free = new int[topo.edgeCount];
+        slotOf = new int[topo.edgeCount];
+        for (int e = 0; e < topo.edgeCount; e++) {
+            if (!isClaimed(e)) {
+                slotOf[e] = freeCount;
+                free[freeCount++] = e;
+            }
+        }
+        threeSided = new int[topo.boxCount];
+        for (int box = 0; box < topo.boxCount; box++) if (this.boxEdges[box] == 3) threeSided[threeCount++] = box;
+        score[1] = scoreP1;
+        score[2] = scoreP2;
+        this.toMove = toMove;
+    }
+
+    /** @return an independent copy */
+    public DotsState copy() {
+        DotsState s = new DotsState(topo, claimed, boxEdges, score[1], score[2], toMove);
+        s.copyFrom(this);
+        return s;
+    }
+
+    /** Overwrite this state with other (same grid size), without allocating. */
+    public void copyFrom(DotsState other) {
+        System.arraycopy(other.claimed, 0, claimed, 0, claimed.length);
+        System.arraycopy(other.boxEdges, 0, boxEdges, 0, boxEdges.length);
+        System.arraycopy(other.free, 0, free, 0, free.length);
+        System.arraycopy(other.slotOf, 0, slotOf, 0, slotOf.length);
+        freeCount = other.freeCount;
+        System.arraycopy(other.threeSided, 0, threeSided, 0, other.threeCount);
+        threeCount = other.threeCount;
+        score[1] = other.score[1];
+        score[2] = other.score[2];
+        toMove = other.toMove;
+    }
+
+    /**
+     * Claim an unclaimed edge for the player to move; the turn passes unless a box was completed.
+     * @return number of boxes completed
+     */
+    public int claim(int edgeId) {
+        claimed[edgeId >>> 6] |= 1L << edgeId;
+        int slot = slotOf[edgeId], last = free[--freeCount];
+        free[slot] = last;
+        slotOf[last] = slot;
+        free[freeCount] = edgeId;
+        slotOf[edgeId] = freeCount;
+        int made = count(topo.boxA[edgeId]) + count(topo.boxB[edgeId]);
+        if (made == 0) toMove = 3 - toMove;
+        else score[toMove] += made;
+        return made;
+    }
+
+    /** @return an unclaimed edge that completes a box, or -1 if none does */
+    public int finishingEdge() {
+        while (threeCount > 0) {
+            int box = threeSided[threeCount - 1];
+            if (boxEdges[box] == 3) {
+                for (int k = 0; k < 4; k++) {
+                    int e = topo.boxEdges[4 * box + k];
+                    if (!isClaimed(e)) return e;
+                }
+            }
+            threeCount--;
+        }
+        return -1;
+    }
+
+    /** @return whether claiming this unclaimed edge neither completes a box nor gives one a third edge */
+    public boolean isSafe(int edgeId) {
+        int a = topo.boxA[edgeId], b = topo.boxB[edgeId];
+        return (a < 0 || boxEdges[a] <= 1) && (b < 0 || boxEdges[b] <= 1);
+    }
+
+    /** @return whether claiming this edge would complete a box */
+    public boolean isFinishing(int edgeId) {
+        int a = topo.boxA[edgeId], b = topo.boxB[edgeId];
+        return (a >= 0 && boxEdges[a] == 3) || (b >= 0 && boxEdges[b] == 3);
+    }
+
+    /** @return whether claiming this edge would give some box a third edge */
+    public boolean wouldCreateThirdEdge(int edgeId) {
+        int a = topo.boxA[edgeId], b = topo.boxB[edgeId];
+        return (a >= 0 && boxEdges[a] == 2) || (b >= 0 && boxEdges[b] == 2);
+    }
+
+    /**
+     * @return whether this edge is the far side of a box Y (two claimed edges)
+     *         whose other free edge leads into a box that can be taken now:
+     *         claiming it declines the last two boxes of a chain (double-dealing)
+     */
+    public boolean isDoubleDealing(int edgeId) {
+        return handsOverTakenBox(topo.boxA[edgeId], edgeId) || handsOverTakenBox(topo.boxB[edgeId], edgeId);
+    }
+
+    /**
+     * @return number of boxes the opponent can take in a row after this edge
+     *         is claimed (0 for a safe edge), following the chain from each
+     *         box it gives a third side; walks at most the chain length
+     */
+    public int sacrificeSize(int edgeId) {
+        return chainFrom(topo.boxA[edgeId], edgeId) + chainFrom(topo.boxB[edgeId], edgeId);
+    }
+
+    public boolean isClaimed(int edgeId) { return (claimed[edgeId >>> 6] & (1L << edgeId)) != 0; }
+
+    /** @return number of unclaimed edges */
+    public int freeCount() { return freeCount; }
+
+    /** @return the i-th unclaimed edge, 0 &lt;= i &lt; freeCount(); the order changes as edges are claimed */
+    public int freeAt(int i) { return free[i]; }
+
+    public boolean isOver() { return freeCount == 0; }
+
+    /** @return player (1/2) to move */
+    public int toMove() { return toMove; }
+
+    public int score(int playerId) { return score[playerId]; }
+
+    /** @return total number of boxes */
+    public int boxCount() { return topo.boxCount; }
+
+    private boolean handsOverTakenBox(int box, int edgeId) {
+        if (box < 0 || boxEdges[box] != 2) return false;
+        for (int k = 0; k < 4; k++) {
+            int e = topo.boxEdges[4 * box + k];
+            if (e == edgeId || isClaimed(e)) continue;
+            int other = topo.boxA[e] == box ? topo.boxB[e] : topo.boxA[e];
+            if (other >= 0 && boxEdges[other] == 3) return true;
+        }
+        return false;
+    }
+
+    /** Boxes taken in a row once box gets one more claimed edge (via edge), moving along boxes with two claimed edges. */
+    private int chainFrom(int box, int via) {
+        int taken = 0, start = box;
+        while (box >= 0 && boxEdges[box] == 2 && (taken == 0 || box != start)) {
+            taken++;
+            int next = -1, exit = -1;
+            for (int k = 0; k < 4; k++) {
+                int e = topo.boxEdges[4 * box + k];
+                if (e != via && !isClaimed(e)) {
+                    exit = e;
+                    next = topo.boxA[e] == box ? topo.boxB[e] : topo.boxA[e];
+                }
+            }
+            if (exit < 0) break;
+            box = next;
+            via = exit;
+        }
+        return taken;
+    }
+
+    private int count(int box) {
+        if (box < 0) return 0;
+        int n = ++boxEdges[box];
+        if (n == 3) threeSided[threeCount++] = box;
+        return n == 4 ? 1 : 0;
+    }
+}
@@ -0,0 +1,64 @@
+package zyjfassignment.boardgames.dots;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Edge / box adjacency of one dot-grid size, built once and shared by every
+ * DotsBoard of that size (tables are read-only after construction).
+ *
+ * Box index = br * (C - 1) + bc. Edge ids follow DotsBoard: horizontal edges
+ * [0, H), vertical edges [H, H + V).
+ */
+final class DotsTopology {
+    private static final Map<Integer, DotsTopology> CACHE = new ConcurrentHashMap<>();
+
+    final int rows, cols;
+    final int hCount, edgeCount, boxCount;
+    final int[] boxA, boxB;     // [edge] the one or two boxes beside it, -1 = none (A above / left, B below / right)
+    final int[] boxEdges;       // [box * 4 + k] top, bottom, left, right edge ids
+
+    private DotsTopology(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        hCount = rows * (cols - 1);
+        edgeCount = hCount + (rows - 1) * cols;
+        boxCount = (rows - 1) * (cols - 1);
+        boxA = new int[edgeCount];
+        boxB = new int[edgeCount];
+        boxEdges = new int[4 * boxCount];
+
+        for (int e = 0; e < edgeCount; e++) {
+            int a = -1, b = -1;
+            if (e < hCount) {
+                int r = e / (cols - 1), c = e % (cols - 1);
+                if (r > 0) a = box(r - 1, c);
+                if (r < rows - 1) b = box(r, c);
+            } else {
+                int local = e - hCount;
+                int r = local / cols, c = local % cols;
+                if (c > 0) a = box(r, c - 1);
+                if (c < cols - 1) b = box(r, c);
+            }
+            boxA[e] = a;
+            boxB[e] = b;
+        }
+        for (int br = 0; br < rows - 1; br++) {
+            for (int bc = 0; bc < cols - 1; bc++) {
+                int k = 4 * box(br, bc);
+                boxEdges[k] = hEdge(br, bc);
+                boxEdges[k + 1] = hEdge(br + 1, bc);
+                boxEdges[k + 2] = vEdge(br, bc);
+                boxEdges[k + 3] = vEdge(br, bc + 1);
+            }
+        }
+    }
+
+    static DotsTopology forSize(int rows, int cols) {
+        return CACHE.computeIfAbsent(rows << 16 | cols, k -> new DotsTopology(rows, cols));
+    }
+
+    int box(int br, int bc) { return br * (cols - 1) + bc; }
+    int hEdge(int r, int c) { return r * (cols - 1) + c; }
+    int vEdge(int r, int c) { return hCount + r * cols + c; }
+}
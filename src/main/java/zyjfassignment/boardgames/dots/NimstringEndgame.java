@@ -0,0 +1,267 @@
+package zyjfassignment.boardgames.dots;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exact values and moves for Dots & Boxes loony endgames: positions with no
+ * safe edge left in which every open box has two claimed sides, so the board
+ * is a set of independent chains (both ends on the border) and loops, plus
+ * possibly the boxes of one just opened for the player to move.
+ *
+ * Nimstring is decided by then (whoever must open a component has lost
+ * control), so what is left is the controlled value: the net number of boxes
+ * the player in control gains. With v = value of the remaining components,
+ * opening a chain of n hands the controller max(n - v, n - 4 + v) (take all
+ * and open the next one, or take all but two and decline them with a
+ * double-dealing move); a 1-chain, or a 2-chain opened in the middle, can
+ * only be taken: n - v; a loop of n gives max(n - v, n - 8 + v). The player
+ * who must open picks the component that minimises this. The boxes of an
+ * opened component (taken from a box with three claimed sides) are valued
+ * the same way for the player to move.
+ *
+ * The value of a component set depends only on its multiset of chain and
+ * loop lengths, so it is memoised under the sorted lengths in an LRU cache
+ * shared by every instance (and game); a board is then evaluated with one
+ * pass over its boxes. Instances hold scratch buffers and are not thread safe.
+ */
+public final class NimstringEndgame {
+    /** value() for positions that are not loony endgames */
+    public static final int NOT_LOONY = Integer.MIN_VALUE;
+    private static final int CACHE_ENTRIES = 1 << 16;
+    private static final Map<String, Integer> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, Integer>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > CACHE_ENTRIES;
+                }
+            });
+
+    private DotsBoard board;
+    private DotsTopology topo;
+    private int[] mark = new int[0];     // [box] == stamp: part of an opened component
+    private int[] seen = new int[0];     // [component id] == stamp: already listed
+    private int stamp;
+
+    // components nobody has opened yet
+    private int[] lengths = new int[0];
+    private boolean[] loop = new boolean[0];
+    private int[] member = new int[0];   // a box of the component
+    private int count;
+
+    // boxes that can be taken now, in runs from a box with three claimed sides
+    private int[] runStart = new int[0];
+    private int[] runLength = new int[0];
+    private boolean[] runLoop = new boolean[0];   // ends in another box with three sides (an opened loop)
+    private int runs, capturable;
+
+    /**
+     * @return net boxes the player to move gains from here with best play on
+     *         both sides, or NOT_LOONY if the position is not a loony endgame
+     */
+    public int value(DotsBoard board) {
+        if (!analyse(board)) return NOT_LOONY;
+        if (capturable == 0) return count == 0 ? 0 : -controlledValue(lengths, loop, count, -1);
+        int rest = controlledValue(lengths, loop, count, -1);
+        return Math.max(capturable - rest, declineValue(rest));
+    }
+
+    /** @return an optimal edge for the player to move, or -1 if the position is not a loony endgame */
+    public int bestMove(DotsBoard board) {
+        if (!analyse(board) || board.isFull()) return -1;
+        if (capturable > 0) {
+            int rest = controlledValue(lengths, loop, count, -1);
+            int decline = declineValue(rest);
+            if (decline <= capturable - rest) return freeEdge(runStart[0], -1);
+            int keep = -1;                       // the run whose last boxes are declined
+            for (int i = 0; i < runs && keep < 0; i++) if (!runLoop[i] && runLength[i] >= 2) keep = i;
+            for (int i = 0; i < runs && keep < 0; i++) if (runLoop[i] && runLength[i] >= 4) keep = i;
+            for (int i = 0; i < runs; i++) if (i != keep) return freeEdge(runStart[i], -1);
+            int x = runStart[keep];
+            int toY = freeEdge(x, -1);
+            if (runLength[keep] > (runLoop[keep] ? 4 : 2)) return toY;
+            return freeEdge(other(x, toY), toY);  // Y's far edge: both boxes are left to the opponent
+        }
+        int best = 0, bestGain = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int gain = openingGain(i, controlledValue(lengths, loop, count, i));
+            if (gain < bestGain) {
+                bestGain = gain;
+                best = i;
+            }
+        }
+        int box = member[best];
+        if (!loop[best] && lengths[best] == 2) {   // open a 2-chain in the middle, so it cannot be declined
+            for (int k = 0; k < 4; k++) {
+                int e = topo.boxEdges[4 * box + k];
+                int o = other(box, e);
+                if (!board.isClaimed(e) && o >= 0 && board.componentOf(o) == board.componentOf(box)) return e;
+            }
+        }
+        return freeEdge(box, -1);
+    }
+
+    /**
+     * Controlled value of a set of independent components: net boxes gained by
+     * the player in control when the opponent must open one of them.
+     */
+    public static int controlledValue(int[] chainLengths, int[] loopLengths) {
+        int[] chains = chainLengths.clone(), loops = loopLengths.clone();
+        Arrays.sort(chains);
+        Arrays.sort(loops);
+        return controlled(chains, loops);
+    }
+
+    /** @return number of component sets currently memoised */
+    public static int cacheSize() {
+        return CACHE.size();
+    }
+
+    /* ---------------- position ---------------- */
+
+    /** Split the position into opened runs and untouched components. @return whether it is a loony endgame */
+    private boolean analyse(DotsBoard b) {
+        board = b;
+        topo = b.topology();
+        runs = capturable = count = 0;
+        if (b.safeMoveCount() > 0) return false;
+        int boxes = topo.boxCount;
+        if (mark.length < boxes) {
+            mark = new int[boxes];
+            seen = new int[boxes];
+            lengths = new int[boxes];
+            loop = new boolean[boxes];
+            member = new int[boxes];
+            runStart = new int[boxes];
+            runLength = new int[boxes];
+            runLoop = new boolean[boxes];
+        }
+        if (++stamp == 0) {
+            Arrays.fill(mark, 0);
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        for (int box = 0; box < boxes; box++) {
+            int d = b.claimedAround(box);
+            if (d <= 1) return false;            // a junction: not a sum of chains and loops
+            if (d != 3 || mark[box] == stamp) continue;
+            mark[box] = stamp;
+            int len = 1, via = freeEdge(box, -1), next = other(box, via);
+            while (next >= 0 && b.claimedAround(next) == 2) {
+                mark[next] = stamp;
+                len++;
+                via = freeEdge(next, via);
+                next = other(next, via);
+            }
+            if (next >= 0) {
+                if (b.claimedAround(next) != 3) return false;
+                mark[next] = stamp;
+                len++;
+            }
+            runStart[runs] = box;
+            runLength[runs] = len;
+            runLoop[runs++] = next >= 0;
+            capturable += len;
+        }
+        for (int box = 0; box < boxes; box++) {
+            if (b.claimedAround(box) != 2 || mark[box] == stamp) continue;
+            int id = b.componentOf(box);
+            if (seen[id] == stamp) continue;
+            seen[id] = stamp;
+            lengths[count] = b.chainSize(id);
+            loop[count] = b.isLoop(id);
+            member[count++] = box;
+        }
+        return true;
+    }
+
+    /** @return best result of declining the last boxes of a run (two of a chain, four of a loop), or NOT_LOONY */
+    private int declineValue(int rest) {
+        int best = NOT_LOONY;
+        for (int i = 0; i < runs; i++) {
+            if (!runLoop[i] && runLength[i] >= 2) best = Math.max(best, capturable - 4 + rest);
+            else if (runLoop[i] && runLength[i] >= 4) best = Math.max(best, capturable - 8 + rest);
+        }
+        return best;
+    }
+
+    /** @return the first unclaimed edge of box other than skip */
+    private int freeEdge(int box, int skip) {
+        for (int k = 0; k < 4; k++) {
+            int e = topo.boxEdges[4 * box + k];
+            if (e != skip && !board.isClaimed(e)) return e;
+        }
+        return -1;
+    }
+
+    private int other(int box, int edge) {
+        return topo.boxA[edge] == box ? topo.boxB[edge] : topo.boxA[edge];
+    }
+
+    /* ---------------- values ---------------- */
+
+    /** Controlled value of the listed components, leaving out index skip (-1 = none). */
+    private static int controlledValue(int[] lengths, boolean[] loop, int count, int skip) {
+        int chains = 0, loops = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == skip) continue;
+            if (loop[i]) loops++;
+            else chains++;
+        }
+        int[] c = new int[chains], l = new int[loops];
+        chains = loops = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == skip) continue;
+            if (loop[i]) l[loops++] = lengths[i];
+            else c[chains++] = lengths[i];
+        }
+        Arrays.sort(c);
+        Arrays.sort(l);
+        return controlled(c, l);
+    }
+
+    /** @return what the controller nets when component i is opened and the rest is worth rest */
+    private int openingGain(int i, int rest) {
+        int n = lengths[i];
+        if (loop[i]) return Math.max(n - rest, n - 8 + rest);
+        return n <= 2 ? n - rest : Math.max(n - rest, n - 4 + rest);
+    }
+
+    /** chains and loops sorted ascending */
+    private static int controlled(int[] chains, int[] loops) {
+        if (chains.length == 0 && loops.length == 0) return 0;
+        String key = key(chains, loops);
+        Integer cached = CACHE.get(key);
+        if (cached != null) return cached;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < chains.length; i++) {
+            if (i > 0 && chains[i] == chains[i - 1]) continue;
+            int n = chains[i], rest = controlled(without(chains, i), loops);
+            best = Math.min(best, n <= 2 ? n - rest : Math.max(n - rest, n - 4 + rest));
+        }
+        for (int i = 0; i < loops.length; i++) {
+            if (i > 0 && loops[i] == loops[i - 1]) continue;
+            int n = loops[i], rest = controlled(chains, without(loops, i));
+            best = Math.min(best, Math.max(n - rest, n - 8 + rest));
+        }
+        CACHE.put(key, best);
+        return best;
+    }
+
+    private static int[] without(int[] a, int i) {
+        int[] r = new int[a.length - 1];
+        System.arraycopy(a, 0, r, 0, i);
+        System.arraycopy(a, i + 1, r, i, r.length - i);
+        return r;
+    }
+
+    /** Chain lengths, a 0 separator, loop lengths, one char each. */
+    private static String key(int[] chains, int[] loops) {
+        char[] k = new char[chains.length + 1 + loops.length];
+        for (int i = 0; i < chains.length; i++) k[i] = (char) chains[i];
+        for (int i = 0; i < loops.length; i++) k[chains.length + 1 + i] = (char) loops[i];
+        return new String(k);
+    }
+}
@@ -0,0 +1,76 @@
+package zyjfassignment.boardgames.quoridor;
+
+/**
+ * Bitset helpers over packed long[] words (bit i lives in word i / 64).
+ * All operations write into caller-supplied arrays, so nothing allocates.
+ */
+final class Bits {
+    private Bits() {}
+
+    /** @return number of 64-bit words needed to hold n bits */
+    static int words(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    static boolean get(long[] b, int i) {
+        return (b[i >>> 6] & (1L << i)) != 0;
+    }
+
+    static void set(long[] b, int i) {
+        b[i >>> 6] |= 1L << i;
+    }
+
+    static void clear(long[] b, int i) {
+        b[i >>> 6] &= ~(1L << i);
+    }
+
+    /** Set the first n bits of b, clear the rest. */
+    static void fillFirst(long[] b, int n) {
+        for (int w = 0; w < b.length; w++) {
+            int lo = w << 6;
+            if (n >= lo + 64) b[w] = -1L;
+            else if (n <= lo) b[w] = 0L;
+            else b[w] = (1L << (n - lo)) - 1;
+        }
+    }
+
+    /** dst = src << n (towards higher indices); src and dst may be the same array. */
+    static void shiftLeft(long[] src, int n, long[] dst) {
+        int ws = n >>> 6, bs = n & 63;
+        for (int i = dst.length - 1; i >= 0; i--) {
+            int j = i - ws;
+            long v = 0L;
+            if (j >= 0) {
+                v = src[j] << bs;
+                if (bs != 0 && j > 0) v |= src[j - 1] >>> (64 - bs);
+            }
+            dst[i] = v;
+        }
+    }
+
+    /** dst = src >>> n (towards lower indices); src and dst may be the same array. */
+    static void shiftRight(long[] src, int n, long[] dst) {
+        int ws = n >>> 6, bs = n & 63;
+        int len = dst.length;
+        for (int i = 0; i < len; i++) {
+            int j = i + ws;
+            long v = 0L;
+            if (j < len) {
+                v = src[j] >>> bs;
+                if (bs != 0 && j + 1 < len) v |= src[j + 1] << (64 - bs);
+            }
+            dst[i] = v;
+        }
+    }
+
+    static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) if ((a[i] & b[i]) != 0) return true;
+        return false;
+    }
+
+    static int count(long[] b) {
+        int n = 0;
+        for (long w : b) n += Long.bitCount(w);
+        return n;
+    }
+}
@@ -0,0 +1,99 @@
+package zyjfassignment.boardgames.quoridor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only Quoridor opening book backed by a memory-mapped file.
+ *
+ * File layout (big endian):
+ *   header  int magic "QBK1", int version, int board size, int players,
+ *           int wall budget, int entry count
+ *   entries count x (long position hash, int encoded move), sorted by hash
+ *
+ * Opening only maps the file; lookups binary-search the mapping, so nothing
+ * is loaded onto the heap. Keys are QuoridorBoard.hash(), which includes the
+ * side to move and the wall counts, so a book only matches games started with
+ * the same size, player count and wall budget. Callers should still check the
+ * returned move with isLegalMove (hash collisions).
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x51424B31;   // "QBK1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int ENTRY_BYTES = 12;
+
+    private final MappedByteBuffer map;
+    private final int size, players, wallBudget, count;
+
+    private OpeningBook(MappedByteBuffer map) throws IOException {
+        this.map = map;
+        if (map.capacity() < HEADER_BYTES || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            throw new IOException("Not a Quoridor opening book");
+        }
+        size = map.getInt(8);
+        players = map.getInt(12);
+        wallBudget = map.getInt(16);
+        count = map.getInt(20);
+        if (count < 0 || map.capacity() < HEADER_BYTES + (long) count * ENTRY_BYTES) {
+            throw new IOException("Truncated Quoridor opening book");
+        }
+    }
+
+    /** Map a book file (the channel is closed again; the mapping stays valid). */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OpeningBook(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /** @return whether this book was built for games set up like the given board */
+    public boolean matches(QuoridorBoard board) {
+        return board.getRows() == size && board.getPlayerCount() == players
+                && board.defaultWallBudget() == wallBudget;
+    }
+
+    /** @return the book move for the position hash, or -1 if the position is not in the book */
+    public int lookup(long hash) {
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long key = map.getLong(HEADER_BYTES + mid * ENTRY_BYTES);
+            if (key < hash) lo = mid + 1;
+            else if (key > hash) hi = mid - 1;
+            else return map.getInt(HEADER_BYTES + mid * ENTRY_BYTES + 8);
+        }
+        return -1;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Write a book file. keys/moves are parallel arrays of the first n entries;
+     * they are sorted here, duplicates keep the first move.
+     */
+    public static void write(Path file, int boardSize, int players, int wallBudget,
+                             long[] keys, int[] moves, int n) throws IOException {
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        java.util.Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+        int unique = 0;
+        for (int i = 0; i < n; i++) if (i == 0 || keys[order[i]] != keys[order[i - 1]]) unique++;
+
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + unique * ENTRY_BYTES).order(ByteOrder.BIG_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(boardSize).putInt(players).putInt(wallBudget).putInt(unique);
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && keys[order[i]] == keys[order[i - 1]]) continue;
+            buf.putLong(keys[order[i]]).putInt(moves[order[i]]);
+        }
+        Files.write(file, buf.array());
+    }
+}
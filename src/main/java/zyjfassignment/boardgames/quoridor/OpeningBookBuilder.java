@@ -0,0 +1,113 @@
+package zyjfassignment.boardgames.quoridor;
+
+import zyjfassignment.boardgames.core.strategy.AlphaBetaQuoridorStrategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Offline builder for OpeningBook files.
+ *
+ * Walks the opening tree from the start position to a fixed number of plies.
+ * Every position gets a deep alpha-beta search whose best move goes into the
+ * book; the walk then follows that move plus the most likely alternatives
+ * (downhill steps first, then the best candidate walls), so the book also
+ * covers the usual replies of other players. Transpositions are searched once.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.quoridor.OpeningBookBuilder
+ *          [size=9] [players=2] [plies=4] [width=3] [millisPerPosition=1000] [out=quoridor.book]
+ */
+public class OpeningBookBuilder {
+    private final int plies, width;
+    private final AlphaBetaQuoridorStrategy search;
+    private final WallCandidates walls = new WallCandidates();
+    private final Set<Long> visited = new HashSet<>();
+    private long[] keys = new long[256];
+    private int[] moves = new int[256];
+    private int entries;
+
+    public OpeningBookBuilder(int plies, int width, long millisPerPosition) {
+        this.plies = plies;
+        this.width = Math.max(1, width);
+        this.search = new AlphaBetaQuoridorStrategy(millisPerPosition);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : QuoridorBoard.DEFAULT_SIZE;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int width = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        long millis = args.length > 4 ? Long.parseLong(args[4]) : 1000;
+        Path out = Paths.get(args.length > 5 ? args[5] : "quoridor.book");
+
+        QuoridorBoard board = new QuoridorBoard(players, size);
+        for (int s = 0; s < players; s++) board.setRemainingWalls((char) ('A' + s), board.defaultWallBudget());
+        board.setSideToMove('A');
+
+        long start = System.nanoTime();
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies, width, millis);
+        builder.walk(board, 0);
+        OpeningBook.write(out, size, players, board.defaultWallBudget(), builder.keys, builder.moves, builder.entries);
+        System.out.printf("%d positions -> %s (%d bytes) in %.1f s%n", builder.entries, out,
+                OpeningBook.HEADER_BYTES + builder.entries * OpeningBook.ENTRY_BYTES, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void walk(QuoridorBoard board, int ply) {
+        if (ply >= plies || board.winner() != 0 || !visited.add(board.hash())) return;
+        int best = search.chooseMove(board, board.sideToMove());
+        add(board.hash(), best);
+
+        int[] next = followUps(board, best);
+        for (int m : next) {
+            board.applyMove(m);
+            walk(board, ply + 1);
+            board.undoMove();
+        }
+    }
+
+    /** @return the book move followed by up to width - 1 plausible alternatives */
+    private int[] followUps(QuoridorBoard board, int best) {
+        int[] out = new int[width];
+        int n = 0;
+        out[n++] = best;
+        char me = board.sideToMove();
+        int[] cells = new int[4];
+        int steps = board.legalSteps(me, cells);
+        int myDist = board.distanceToGoal(me);
+        // downhill steps before sideways ones
+        for (int pass = 0; pass < 2 && n < width; pass++) {
+            for (int i = 0; i < steps && n < width; i++) {
+                boolean downhill = board.distanceToGoal(me, cells[i]) < myDist;
+                if (downhill != (pass == 0)) continue;
+                n = addUnique(out, n, QuoridorMove.step(board.rowOf(cells[i]), board.colOf(cells[i])));
+            }
+        }
+        if (n < width && board.remainingWalls(me) > 0) {
+            int[] wallMoves = new int[board.maxMoves()];
+            int[] scores = new int[board.maxMoves()];
+            int w = walls.scored(board, me, board.leadingOpponent(me), wallMoves, scores);
+            for (int i = 0; i < w && n < width; i++) n = addUnique(out, n, wallMoves[i]);
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int addUnique(int[] out, int n, int move) {
+        for (int i = 0; i < n; i++) if (out[i] == move) return n;
+        out[n] = move;
+        return n + 1;
+    }
+
+    private void add(long key, int move) {
+        if (entries == keys.length) {
+            keys = Arrays.copyOf(keys, entries * 2);
+            moves = Arrays.copyOf(moves, entries * 2);
+        }
+        keys[entries] = key;
+        moves[entries] = move;
+        entries++;
+    }
+}
@@ -3,125 +3,854 @@ import zyjfassignment.boardgames.core.GridBoard;
 import java.util.*;
 
 /**
- * QuoridorBoard (2–4 Players)
+ * QuoridorBoard (2–4 Players, N x N)
+ *
+ * Pawns start in the middle of their edge and race to the opposite one;
+ * the default board is the classic 9 x 9.
+ * Storage is a packed bitboard: cell index = r * C + c, one bit per cell.
+ *  - occupied: cells holding a pawn
+ *  - hWalls:   bit (r,c) set = wall between (r,c) and (r+1,c)
+ *  - vWalls:   bit (r,c) set = wall between (r,c) and (r,c+1)
+ * Pawn positions are primitive cell indices per player slot (A=0 .. D=3).
+ * A wall is only legal if every player can still reach their goal edge;
+ * that check is a shift-based flood fill over the bitsets.
+ * Each player also has a cached distance-to-goal field (walls only, pawns
+ * ignored) that wall placements repair locally, so distance queries are reads.
+ * For search, applyMove/undoMove play encoded moves (see QuoridorMove) for the
+ * side to move in place, backed by an int undo stack.
+ * A 64-bit Zobrist hash of pawns, walls, wall counts and side to move is kept
+ * up to date by every mutation.
+ * The char/int[] based methods below are a thin facade over this state.
  */
 public class QuoridorBoard extends GridBoard {
-    private final char[][] cells;
-    private final char[][] vWalls;
-    private final char[][] hWalls;
-    private final Map<Character, int[]> playerPos = new LinkedHashMap<>(); // player position
+    /** Step directions for {@link #neighbor(int, int)} / {@link #isOpen(int, int)}. */
+    public static final int NORTH = 0, SOUTH = 1, WEST = 2, EAST = 3;
+    /** Supported board sizes (moves encode row/col in 8 bits). */
+    public static final int MIN_SIZE = 3, MAX_SIZE = 255;
+    public static final int DEFAULT_SIZE = 9;
+
+    private final int cellCount;
+    private final long[] occupied;
+    private final long[] vWalls;
+    private final long[] hWalls;
+    private final long[] notLastCol;  // cells with c < C - 1
+    private final long[] boardMask;   // the R * C valid cell bits
+    private final long[][] goalMask;  // goal edge of each player slot
+    private final long[] reach, grown, shifted; // flood fill scratch
+    private final int[][] dist;       // [slot][cell] steps to the goal edge, cellCount = unreachable
+    private final int[] queue;        // BFS / repair scratch
+    private final int[] stamp;        // repair region marks (== stampGen)
+    private int stampGen;
+    private final int[] bucketHead, bucketNext, bucketPrev; // repair priority buckets
+    private final char[] vOwner;      // owner of each vertical wall (print only)
+    private final char[] hOwner;      // owner of each horizontal wall (print only)
+    private final int[] pos = new int[4];            // player position (cell index)
+    private final int[] remainingWalls = new int[4];
     private int playerCount = 2;
-    private final Map<Character, Integer> remainingWalls = new HashMap<>();
+    private int toMove;               // slot of the side to move
+    private int[] undoMoves = new int[64];
+    private int[] undoInfo = new int[64];  // previous cell << 2 | mover slot
+    private int undoTop;
+    private final Zobrist keys;
+    private long hash;
+
     public QuoridorBoard(int players) {
-        super(9, 9);
+        this(players, DEFAULT_SIZE);
+    }
+
+    /** @param size board side length N (MIN_SIZE..MAX_SIZE) */
+    public QuoridorBoard(int players, int size) {
+        super(size, size);
         if (players < 2 || players > 4) throw new IllegalArgumentException("Players must be 2–4");
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be " + MIN_SIZE + "–" + MAX_SIZE);
+        }
         this.playerCount = players;
-        cells = new char[R][C];
-        vWalls = new char[R][C - 1];
-        hWalls = new char[R - 1][C];
+        cellCount = R * C;
+        int words = Bits.words(cellCount);
+        occupied = new long[words];
+        vWalls = new long[words];
+        hWalls = new long[words];
+        notLastCol = new long[words];
+        for (int i = 0; i < cellCount; i++) if (i % C != C - 1) Bits.set(notLastCol, i);
+        boardMask = new long[words];
+        Bits.fillFirst(boardMask, cellCount);
+        goalMask = new long[4][words];
+        for (int i = 0; i < C; i++) {
+            Bits.set(goalMask[0], cellIndex(0, i));      // A: top row
+            Bits.set(goalMask[1], cellIndex(R - 1, i));  // B: bottom row
+        }
+        for (int i = 0; i < R; i++) {
+            Bits.set(goalMask[2], cellIndex(i, C - 1));  // C: right column
+            Bits.set(goalMask[3], cellIndex(i, 0));      // D: left column
+        }
+        reach = new long[words];
+        grown = new long[words];
+        shifted = new long[words];
+        dist = new int[4][cellCount];
+        queue = new int[cellCount];
+        stamp = new int[cellCount];
+        bucketHead = new int[cellCount + 1];
+        bucketNext = new int[cellCount];
+        bucketPrev = new int[cellCount];
+        Arrays.fill(bucketHead, -1);  // buckets are always drained again by a repair
+        vOwner = new char[cellCount];
+        hOwner = new char[cellCount];
+        keys = Zobrist.forSize(R, C);
         reset();
     }
 
+    /** Copy of the position (pawns, walls, wall counts, side to move); the undo history is not copied. */
+    public QuoridorBoard(QuoridorBoard other) {
+        super(other.R, other.C);
+        playerCount = other.playerCount;
+        cellCount = other.cellCount;
+        occupied = other.occupied.clone();
+        vWalls = other.vWalls.clone();
+        hWalls = other.hWalls.clone();
+        notLastCol = other.notLastCol;
+        boardMask = other.boardMask;
+        goalMask = other.goalMask;
+        vOwner = other.vOwner.clone();
+        hOwner = other.hOwner.clone();
+        System.arraycopy(other.pos, 0, pos, 0, 4);
+        System.arraycopy(other.remainingWalls, 0, remainingWalls, 0, 4);
+        toMove = other.toMove;
+        keys = other.keys;
+        hash = other.hash;
+        int words = occupied.length;
+        reach = new long[words];
+        grown = new long[words];
+        shifted = new long[words];
+        dist = new int[4][];
+        for (int s = 0; s < 4; s++) dist[s] = other.dist[s].clone();
+        queue = new int[cellCount];
+        stamp = new int[cellCount];
+        bucketHead = new int[cellCount + 1];
+        bucketNext = new int[cellCount];
+        bucketPrev = new int[cellCount];
+        Arrays.fill(bucketHead, -1);
+    }
+
+    /** @return an independent copy of this position */
+    public QuoridorBoard copy() {
+        return new QuoridorBoard(this);
+    }
+
     /* ---------------- Initialize ---------------- */
     private void reset() {
-        for (int r = 0; r < R; r++) Arrays.fill(cells[r], '.');
-        for (int r = 0; r < R; r++) Arrays.fill(vWalls[r], '.');
-        for (int r = 0; r < R - 1; r++) Arrays.fill(hWalls[r], '.');
-        playerPos.clear();
-        remainingWalls.clear();
-        // Assign initial position
-        playerPos.put('A', new int[]{8, 4}); 
-        playerPos.put('B', new int[]{0, 4}); 
-        if (playerCount >= 3) playerPos.put('C', new int[]{4, 0}); 
-        if (playerCount == 4) playerPos.put('D', new int[]{4, 8}); 
+        Arrays.fill(occupied, 0L);
+        Arrays.fill(vWalls, 0L);
+        Arrays.fill(hWalls, 0L);
+        Arrays.fill(vOwner, '.');
+        Arrays.fill(hOwner, '.');
+        Arrays.fill(remainingWalls, 0);
+        toMove = 0;
+        undoTop = 0;
+        // Assign initial position: middle of the edge opposite the goal
+        pos[0] = cellIndex(R - 1, C / 2);
+        pos[1] = cellIndex(0, C / 2);
+        pos[2] = cellIndex(R / 2, 0);
+        pos[3] = cellIndex(R / 2, C - 1);
+        for (int s = 0; s < playerCount; s++) Bits.set(occupied, pos[s]);
+        for (int s = 0; s < playerCount; s++) computeDistances(s);
+        hash = computeHash();
+    }
 
-        for (Map.Entry<Character, int[]> e : playerPos.entrySet()) {
-            int[] p = e.getValue();
-            cells[p[0]][p[1]] = e.getKey();
+    /** Hash of the current position from scratch (used on reset). */
+    private long computeHash() {
+        long h = keys.side[toMove];
+        for (int s = 0; s < playerCount; s++) {
+            h ^= keys.pawn(s, pos[s]);
+            h ^= keys.wallCount(s, remainingWalls[s]);
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (Bits.get(hWalls, cell)) h ^= keys.hWall[cell];
+            if (Bits.get(vWalls, cell)) h ^= keys.vWall[cell];
         }
+        return h;
+    }
+
+    /** @return 64-bit Zobrist hash of the position, including the side to move */
+    public long hash() {
+        return hash;
+    }
+
+    /* ---------------- cell indexing ---------------- */
+    public int cellCount() {
+        return cellCount;
+    }
+
+    public int cellIndex(int r, int c) {
+        return r * C + c;
+    }
+
+    public int rowOf(int cell) {
+        return cell / C;
+    }
+
+    public int colOf(int cell) {
+        return cell % C;
+    }
+
+    /** @return player slot (A=0, B=1, ...) or -1 if the symbol is not playing */
+    private int slot(char p) {
+        int s = p - 'A';
+        return (s >= 0 && s < playerCount) ? s : -1;
     }
 
     /* ---------------- helper ---------------- */
     public int[] getPos(char p) {
-        return playerPos.get(p);
+        int s = slot(p);
+        if (s < 0) return null;
+        return new int[]{rowOf(pos[s]), colOf(pos[s])};
     }
 
     public int[] getPlayerPosition(char p) {
         return getPos(p);
     }
     public Map<Character, int[]> getPlayerPositions() {
-        return Collections.unmodifiableMap(playerPos);
+        Map<Character, int[]> m = new LinkedHashMap<>();
+        for (int s = 0; s < playerCount; s++) m.put((char) ('A' + s), new int[]{rowOf(pos[s]), colOf(pos[s])});
+        return Collections.unmodifiableMap(m);
     }
+
+    /** @return cell index of the player's pawn, or -1 if the symbol is not playing */
+    public int cellOf(char p) {
+        int s = slot(p);
+        return s < 0 ? -1 : pos[s];
+    }
+
+    /** @return walls each player starts with: 10 on 9 x 9, scaled with the side length */
+    public int defaultWallBudget() {
+        return Math.round(10f * (R - 1) / 8);
+    }
+
     public void setRemainingWalls(char player, int count) {
-       remainingWalls.put(player, count);
+        int s = slot(player);
+        if (s >= 0) setWallCount(s, count);
     }
     public void decreaseWall(char player) {
-        remainingWalls.put(player, Math.max(0, remainingWalls.getOrDefault(player, 0) - 1));
+        int s = slot(player);
+        if (s >= 0) setWallCount(s, Math.max(0, remainingWalls[s] - 1));
+    }
+
+    private void setWallCount(int s, int count) {
+        hash ^= keys.wallCount(s, remainingWalls[s]) ^ keys.wallCount(s, count);
+        remainingWalls[s] = count;
     }
     public boolean isFree(int r, int c) {
-        return r >= 0 && r < R && c >= 0 && c < C && cells[r][c] == '.';
+        return r >= 0 && r < R && c >= 0 && c < C && !Bits.get(occupied, cellIndex(r, c));
+    }
+
+    public boolean isOccupied(int cell) {
+        return Bits.get(occupied, cell);
+    }
+
+    /** @return whether a pawn on cell may cross its dir side (inside the board, no wall) */
+    public boolean isOpen(int cell, int dir) {
+        switch (dir) {
+            case NORTH: return cell >= C && !Bits.get(hWalls, cell - C);
+            case SOUTH: return cell < cellCount - C && !Bits.get(hWalls, cell);
+            case WEST:  return cell % C != 0 && !Bits.get(vWalls, cell - 1);
+            case EAST:  return cell % C != C - 1 && !Bits.get(vWalls, cell);
+        }
+        return false;
+    }
+
+    /** @return neighbouring cell in direction dir, or -1 when it is off the board or walled off */
+    public int neighbor(int cell, int dir) {
+        if (!isOpen(cell, dir)) return -1;
+        switch (dir) {
+            case NORTH: return cell - C;
+            case SOUTH: return cell + C;
+            case WEST:  return cell - 1;
+            default:    return cell + 1;
+        }
     }
 
     public boolean canStep(int r, int c, int nr, int nc) {
         if (Math.abs(nr - r) + Math.abs(nc - c) != 1) return false;
-        if (nr == r && nc == c + 1) return vWalls[r][c]=='.';
-        if (nr == r && nc == c - 1) return (c - 1 >= 0) && vWalls[r][c - 1]=='.';
-        if (nr == r + 1 && nc == c) return hWalls[r][c] == '.';
-        if (nr == r - 1 && nc == c) return (r - 1 >= 0) && hWalls[r - 1][c]=='.';
+        if (r < 0 || r >= R || c < 0 || c >= C) return false;
+        int cell = cellIndex(r, c);
+        if (nr == r && nc == c + 1) return isOpen(cell, EAST);
+        if (nr == r && nc == c - 1) return isOpen(cell, WEST);
+        if (nr == r + 1 && nc == c) return isOpen(cell, SOUTH);
+        if (nr == r - 1 && nc == c) return isOpen(cell, NORTH);
         return false;
     }
 
     public boolean canMoveTo(char player, int targetRow, int targetCol) {
-        int[] pos = getPos(player);
-        return isFree(targetRow, targetCol) && canStep(pos[0], pos[1], targetRow, targetCol);
+        int s = slot(player);
+        if (s < 0) return false;
+        int from = pos[s];
+        return isFree(targetRow, targetCol) && canStep(rowOf(from), colOf(from), targetRow, targetCol);
+    }
+
+    /**
+     * Fill out with the cells the player's pawn can step to.
+     * @return number of cells written (0..4)
+     */
+    public int legalSteps(char player, int[] out) {
+        int s = slot(player);
+        if (s < 0) return 0;
+        int from = pos[s], n = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            int to = neighbor(from, dir);
+            if (to >= 0 && !Bits.get(occupied, to)) out[n++] = to;
+        }
+        return n;
     }
 
     /* ---------------- operation ---------------- */
     public boolean move(char player, int nr, int nc) {
-        int[] pos = getPos(player);
-        int r = pos[0], c = pos[1];
-        if (!isFree(nr, nc) || !canStep(r, c, nr, nc)) return false;
-
-        cells[r][c] = '.';
-        cells[nr][nc] = player;
-        playerPos.put(player, new int[]{nr, nc});
+        if (!canMoveTo(player, nr, nc)) return false;
+        int s = slot(player);
+        int to = cellIndex(nr, nc);
+        Bits.clear(occupied, pos[s]);
+        Bits.set(occupied, to);
+        hash ^= keys.pawn(s, pos[s]) ^ keys.pawn(s, to);
+        pos[s] = to;
         return true;
     }
-    //AI(Bot) use
-    public boolean canPlaceWall(char orient, int r, int c) {
+    /** @return whether the wall slot exists and is empty (no path check) */
+    public boolean isWallSlotFree(char orient, int r, int c) {
         if (orient == 'v' || orient == 'V') {
-            return r >= 0 && r < R && c >= 0 && c < C - 1 && vWalls[r][c]=='.';
+            return r >= 0 && r < R && c >= 0 && c < C - 1 && !Bits.get(vWalls, cellIndex(r, c));
         } else if (orient == 'h' || orient == 'H') {
-            return r >= 0 && r < R - 1 && c >= 0 && c < C && hWalls[r][c]=='.';
+            return r >= 0 && r < R - 1 && c >= 0 && c < C && !Bits.get(hWalls, cellIndex(r, c));
         }
         return false;
     }
 
+    //AI(Bot) use
+    public boolean canPlaceWall(char orient, int r, int c) {
+        if (!isWallSlotFree(orient, r, c)) return false;
+        long[] walls = (orient == 'v' || orient == 'V') ? vWalls : hWalls;
+        int cell = cellIndex(r, c);
+        Bits.set(walls, cell);
+        boolean ok = allPlayersHavePath();
+        Bits.clear(walls, cell);
+        return ok;
+    }
+
 
     public boolean placeWall(char orient, int r, int c,char player) {
+        if (!canPlaceWall(orient, r, c)) return false;
+        int cell = cellIndex(r, c);
         if (orient == 'v' || orient == 'V') {
-            if (r < 0 || r >= R || c < 0 || c >= C - 1 || vWalls[r][c]!='.') return false;
-            vWalls[r][c] = player;
-            return true;
-        } else if (orient == 'h' || orient == 'H') {
-            if (r < 0 || r >= R - 1 || c < 0 || c >= C || hWalls[r][c]!='.') return false;
-            hWalls[r][c] = player;
-            return true;
+            Bits.set(vWalls, cell);
+            vOwner[cell] = player;
+            hash ^= keys.vWall[cell];
+            for (int s = 0; s < playerCount; s++) repairAfterCut(s, cell, cell + 1);
+        } else {
+            Bits.set(hWalls, cell);
+            hOwner[cell] = player;
+            hash ^= keys.hWall[cell];
+            for (int s = 0; s < playerCount; s++) repairAfterCut(s, cell, cell + C);
+        }
+        return true;
+    }
+
+    /** @return whether cell lies on the player's goal edge */
+    public boolean isGoalCell(char player, int cell) {
+        int s = slot(player);
+        return s >= 0 && Bits.get(goalMask[s], cell);
+    }
+
+    /* ---------------- distance fields ---------------- */
+    /** @return steps from the player's pawn to their goal edge (walls only), or Integer.MAX_VALUE if cut off */
+    public int distanceToGoal(char player) {
+        int s = slot(player);
+        return s < 0 ? Integer.MAX_VALUE : distanceToGoal(s, pos[s]);
+    }
+
+    /** @return steps from cell to the player's goal edge (walls only), or Integer.MAX_VALUE if cut off */
+    public int distanceToGoal(char player, int cell) {
+        int s = slot(player);
+        return s < 0 ? Integer.MAX_VALUE : distanceToGoal(s, cell);
+    }
+
+    private int distanceToGoal(int s, int cell) {
+        int d = dist[s][cell];
+        return d >= cellCount ? Integer.MAX_VALUE : d;
+    }
+
+    /** Fill out[slot] with every player's distance to goal (Integer.MAX_VALUE if cut off) in one pass. */
+    public void distancesToGoal(int[] out) {
+        for (int s = 0; s < playerCount; s++) out[s] = distanceToGoal(s, pos[s]);
+    }
+
+    /** @return the other player closest to their goal (ties: earliest slot) */
+    public char leadingOpponent(char player) {
+        char best = player;
+        int bestDist = Integer.MAX_VALUE;
+        for (int s = 0; s < playerCount; s++) {
+            if (s == slot(player)) continue;
+            int d = distanceToGoal(s, pos[s]);
+            if (d < bestDist) {
+                bestDist = d;
+                best = (char) ('A' + s);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return a free neighbouring cell that is one step closer to the player's goal,
+     *         or -1 if every such cell is occupied by another pawn
+     */
+    public int nextStepTowardGoal(char player) {
+        int s = slot(player);
+        if (s < 0) return -1;
+        int[] d = dist[s];
+        int from = pos[s];
+        for (int dir = 0; dir < 4; dir++) {
+            int to = neighbor(from, dir);
+            if (to >= 0 && d[to] == d[from] - 1 && !Bits.get(occupied, to)) return to;
+        }
+        return -1;
+    }
+
+    /** Full multi-source BFS from the goal edge of slot s. */
+    private void computeDistances(int s) {
+        int[] d = dist[s];
+        Arrays.fill(d, cellCount);
+        int head = 0, tail = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (Bits.get(goalMask[s], cell)) {
+                d[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        while (head < tail) {
+            int x = queue[head++];
+            for (int dir = 0; dir < 4; dir++) {
+                int y = neighbor(x, dir);
+                if (y >= 0 && d[y] == cellCount) {
+                    d[y] = d[x] + 1;
+                    queue[tail++] = y;
+                }
+            }
+        }
+    }
+
+    /** @return whether x has an open neighbour one step closer to the goal that is not in the repair region */
+    private boolean hasParent(int[] d, int x) {
+        if (d[x] == 0) return true;
+        for (int dir = 0; dir < 4; dir++) {
+            int y = neighbor(x, dir);
+            if (y >= 0 && d[y] == d[x] - 1 && stamp[y] != stampGen) return true;
         }
         return false;
     }
+
+    /**
+     * The edge a-b was just closed. Distances can only grow, and only for the
+     * cells whose every shortest route ran through that edge: collect that
+     * region, then re-settle it from its boundary in distance order.
+     */
+    private void repairAfterCut(int s, int a, int b) {
+        int[] d = dist[s];
+        int u;
+        if (d[a] == d[b] + 1) u = a;
+        else if (d[b] == d[a] + 1) u = b;
+        else return;                  // the edge was not on any shortest route
+        if (++stampGen == 0) {
+            Arrays.fill(stamp, 0);
+            stampGen = 1;
+        }
+        if (hasParent(d, u)) return;
+
+        // 1) region: FIFO keeps distances non-decreasing, so a cell is judged
+        //    only after all of its possible parents have been
+        int head = 0, tail = 0;
+        stamp[u] = stampGen;
+        queue[tail++] = u;
+        while (head < tail) {
+            int x = queue[head++];
+            for (int dir = 0; dir < 4; dir++) {
+                int y = neighbor(x, dir);
+                if (y >= 0 && stamp[y] != stampGen && d[y] == d[x] + 1 && !hasParent(d, y)) {
+                    stamp[y] = stampGen;
+                    queue[tail++] = y;
+                }
+            }
+        }
+
+        // 2) seed each region cell from its settled neighbours outside the region
+        for (int i = 0; i < tail; i++) d[queue[i]] = cellCount;
+        int minBucket = cellCount;
+        for (int i = 0; i < tail; i++) {
+            int x = queue[i];
+            int best = cellCount;
+            for (int dir = 0; dir < 4; dir++) {
+                int y = neighbor(x, dir);
+                if (y >= 0 && stamp[y] != stampGen && d[y] + 1 < best) best = d[y] + 1;
+            }
+            if (best < cellCount) {
+                d[x] = best;
+                bucketPush(x, best);
+                if (best < minBucket) minBucket = best;
+            }
+        }
+
+        // 3) Dial's algorithm restricted to the region
+        for (int k = minBucket; k < cellCount; k++) {
+            while (bucketHead[k] >= 0) {
+                int x = bucketHead[k];
+                bucketRemove(x, k);
+                stamp[x] = stampGen - 1;   // settled: no longer part of the region
+                for (int dir = 0; dir < 4; dir++) {
+                    int y = neighbor(x, dir);
+                    if (y >= 0 && stamp[y] == stampGen && k + 1 < d[y]) {
+                        if (d[y] < cellCount) bucketRemove(y, d[y]);
+                        d[y] = k + 1;
+                        bucketPush(y, k + 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The edge a-b was just opened. Distances can only shrink: relax from the
+     * endpoint that gained a shorter route and propagate outwards.
+     */
+    private void repairAfterJoin(int s, int a, int b) {
+        int[] d = dist[s];
+        int start;
+        if (d[a] + 1 < d[b]) { d[b] = d[a] + 1; start = b; }
+        else if (d[b] + 1 < d[a]) { d[a] = d[b] + 1; start = a; }
+        else return;
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int x = queue[head++];
+            for (int dir = 0; dir < 4; dir++) {
+                int y = neighbor(x, dir);
+                if (y >= 0 && d[x] + 1 < d[y]) {
+                    d[y] = d[x] + 1;
+                    queue[tail++] = y;
+                }
+            }
+        }
+    }
+
+    private void bucketPush(int x, int k) {
+        int h = bucketHead[k];
+        bucketNext[x] = h;
+        bucketPrev[x] = -1;
+        if (h >= 0) bucketPrev[h] = x;
+        bucketHead[k] = x;
+    }
+
+    private void bucketRemove(int x, int k) {
+        int p = bucketPrev[x], n = bucketNext[x];
+        if (p >= 0) bucketNext[p] = n; else bucketHead[k] = n;
+        if (n >= 0) bucketPrev[n] = p;
+    }
+
+    /* ---------------- make / unmake ---------------- */
+    /** @return symbol of the player whose turn it is for applyMove */
+    public char sideToMove() {
+        return (char) ('A' + toMove);
+    }
+
+    public void setSideToMove(char player) {
+        int s = slot(player);
+        if (s < 0) return;
+        hash ^= keys.side[toMove] ^ keys.side[s];
+        toMove = s;
+    }
+
+    /** @return upper bound on the number of moves generateMoves can write */
+    public int maxMoves() {
+        return 4 + 2 * cellCount;
+    }
+
+    /**
+     * Fill out with every legal move of the side to move: pawn steps, then walls
+     * (only while it has walls left). PASS is generated only if nothing else is legal.
+     * @return number of moves written
+     */
+    public int generateMoves(int[] out) {
+        int n = 0;
+        int from = pos[toMove];
+        for (int dir = 0; dir < 4; dir++) {
+            int to = neighbor(from, dir);
+            if (to >= 0 && !Bits.get(occupied, to)) out[n++] = QuoridorMove.step(rowOf(to), colOf(to));
+        }
+        if (remainingWalls[toMove] > 0) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                int r = rowOf(cell), c = colOf(cell);
+                if (r < R - 1 && canPlaceWall('H', r, c)) out[n++] = QuoridorMove.wall('H', r, c);
+                if (c < C - 1 && canPlaceWall('V', r, c)) out[n++] = QuoridorMove.wall('V', r, c);
+            }
+        }
+        if (n == 0) out[n++] = QuoridorMove.PASS;
+        return n;
+    }
+
+    /**
+     * Like generateMoves, but walls are only checked for a free slot, not for
+     * cutting someone off. Searchers apply such a wall and test pathsIntact()
+     * afterwards, which reads the repaired distance fields instead of flooding.
+     * @return number of moves written (PASS only if nothing else was generated)
+     */
+    public int generatePseudoLegalMoves(int[] out) {
+        int n = 0;
+        int from = pos[toMove];
+        for (int dir = 0; dir < 4; dir++) {
+            int to = neighbor(from, dir);
+            if (to >= 0 && !Bits.get(occupied, to)) out[n++] = QuoridorMove.step(rowOf(to), colOf(to));
+        }
+        if (remainingWalls[toMove] > 0) {
+            for (int w = 0; w < hWalls.length; w++) {
+                long free = ~hWalls[w];
+                while (free != 0) {
+                    int cell = (w << 6) + Long.numberOfTrailingZeros(free);
+                    if (cell >= cellCount - C) break;
+                    out[n++] = QuoridorMove.wall('H', rowOf(cell), colOf(cell));
+                    free &= free - 1;
+                }
+                free = ~vWalls[w] & notLastCol[w];
+                while (free != 0) {
+                    int cell = (w << 6) + Long.numberOfTrailingZeros(free);
+                    out[n++] = QuoridorMove.wall('V', rowOf(cell), colOf(cell));
+                    free &= free - 1;
+                }
+            }
+        }
+        if (n == 0) out[n++] = QuoridorMove.PASS;
+        return n;
+    }
+
+    /** @return whether every player still has a route to their goal, read from the distance fields */
+    public boolean pathsIntact() {
+        for (int s = 0; s < playerCount; s++) {
+            if (dist[s][pos[s]] >= cellCount) return false;
+        }
+        return true;
+    }
+
+    /** @return whether the encoded move is legal for the side to move */
+    public boolean isLegalMove(int move) {
+        int r = QuoridorMove.row(move), c = QuoridorMove.col(move);
+        switch (QuoridorMove.type(move)) {
+            case QuoridorMove.PASS:
+                return move == QuoridorMove.PASS;
+            case QuoridorMove.STEP:
+                return canMoveTo(sideToMove(), r, c);
+            case QuoridorMove.WALL_H:
+                return remainingWalls[toMove] > 0 && canPlaceWall('H', r, c);
+            case QuoridorMove.WALL_V:
+                return remainingWalls[toMove] > 0 && canPlaceWall('V', r, c);
+        }
+        return false;
+    }
+
+    /**
+     * Play a legal move (see isLegalMove / generateMoves) for the side to move
+     * and pass the turn on. Legality is not re-checked here.
+     */
+    public void applyMove(int move) {
+        int mover = toMove;
+        int info = mover;
+        int cell = cellIndex(QuoridorMove.row(move), QuoridorMove.col(move));
+        switch (QuoridorMove.type(move)) {
+            case QuoridorMove.STEP:
+                info |= pos[mover] << 2;
+                Bits.clear(occupied, pos[mover]);
+                Bits.set(occupied, cell);
+                hash ^= keys.pawn(mover, pos[mover]) ^ keys.pawn(mover, cell);
+                pos[mover] = cell;
+                break;
+            case QuoridorMove.WALL_H:
+                Bits.set(hWalls, cell);
+                hOwner[cell] = (char) ('A' + mover);
+                hash ^= keys.hWall[cell];
+                setWallCount(mover, remainingWalls[mover] - 1);
+                for (int s = 0; s < playerCount; s++) repairAfterCut(s, cell, cell + C);
+                break;
+            case QuoridorMove.WALL_V:
+                Bits.set(vWalls, cell);
+                vOwner[cell] = (char) ('A' + mover);
+                hash ^= keys.vWall[cell];
+                setWallCount(mover, remainingWalls[mover] - 1);
+                for (int s = 0; s < playerCount; s++) repairAfterCut(s, cell, cell + 1);
+                break;
+            default:
+                break;
+        }
+        if (undoTop == undoMoves.length) {
+            undoMoves = Arrays.copyOf(undoMoves, undoTop * 2);
+            undoInfo = Arrays.copyOf(undoInfo, undoTop * 2);
+        }
+        undoMoves[undoTop] = move;
+        undoInfo[undoTop] = info;
+        undoTop++;
+        toMove = (mover + 1) % playerCount;
+        hash ^= keys.side[mover] ^ keys.side[toMove];
+    }
+
+    /** Take back the last applyMove, restoring pawns, walls, wall counts and the side to move. */
+    public void undoMove() {
+        if (undoTop == 0) throw new IllegalStateException("No move to undo");
+        undoTop--;
+        int move = undoMoves[undoTop];
+        int info = undoInfo[undoTop];
+        int mover = info & 3;
+        int cell = cellIndex(QuoridorMove.row(move), QuoridorMove.col(move));
+        switch (QuoridorMove.type(move)) {
+            case QuoridorMove.STEP:
+                Bits.clear(occupied, cell);
+                pos[mover] = info >>> 2;
+                Bits.set(occupied, pos[mover]);
+                hash ^= keys.pawn(mover, cell) ^ keys.pawn(mover, pos[mover]);
+                break;
+            case QuoridorMove.WALL_H:
+                Bits.clear(hWalls, cell);
+                hOwner[cell] = '.';
+                hash ^= keys.hWall[cell];
+                setWallCount(mover, remainingWalls[mover] + 1);
+                for (int s = 0; s < playerCount; s++) repairAfterJoin(s, cell, cell + C);
+                break;
+            case QuoridorMove.WALL_V:
+                Bits.clear(vWalls, cell);
+                vOwner[cell] = '.';
+                hash ^= keys.vWall[cell];
+                setWallCount(mover, remainingWalls[mover] + 1);
+                for (int s = 0; s < playerCount; s++) repairAfterJoin(s, cell, cell + 1);
+                break;
+            default:
+                break;
+        }
+        hash ^= keys.side[toMove] ^ keys.side[mover];
+        toMove = mover;
+    }
+
+    /** @return number of moves on the undo stack */
+    public int historySize() {
+        return undoTop;
+    }
+
+    /** @return symbol of a player standing on their goal edge, or 0 if nobody has won */
+    public char winner() {
+        for (int s = 0; s < playerCount; s++) {
+            if (Bits.get(goalMask[s], pos[s])) return (char) ('A' + s);
+        }
+        return 0;
+    }
+
+    /* ---------------- reachability ---------------- */
+    /** @return whether every player can still walk to their goal edge (pawns are ignored) */
+    public boolean allPlayersHavePath() {
+        for (int s = 0; s < playerCount; s++) {
+            if (!reachesGoal(pos[s], goalMask[s])) return false;
+        }
+        return true;
+    }
+
+    /** @return whether the player can still walk to their goal edge (pawns are ignored) */
+    public boolean hasPathToGoal(char player) {
+        int s = slot(player);
+        return s >= 0 && reachesGoal(pos[s], goalMask[s]);
+    }
+
+    /**
+     * Bit-parallel flood fill: grow the reachable set one step in all four
+     * directions per iteration until it touches the goal or stops growing.
+     */
+    private boolean reachesGoal(int from, long[] goal) {
+        int n = reach.length;
+        Arrays.fill(reach, 0L);
+        Bits.set(reach, from);
+        if (Bits.get(goal, from)) return true;
+        while (true) {
+            // east: leave cells without a wall on their right
+            for (int w = 0; w < n; w++) shifted[w] = reach[w] & notLastCol[w] & ~vWalls[w];
+            Bits.shiftLeft(shifted, 1, shifted);
+            for (int w = 0; w < n; w++) grown[w] = reach[w] | shifted[w];
+            // west: land on cells without a wall on their right
+            Bits.shiftRight(reach, 1, shifted);
+            for (int w = 0; w < n; w++) grown[w] |= shifted[w] & notLastCol[w] & ~vWalls[w];
+            // south: leave cells without a wall below
+            for (int w = 0; w < n; w++) shifted[w] = reach[w] & ~hWalls[w];
+            Bits.shiftLeft(shifted, C, shifted);
+            for (int w = 0; w < n; w++) grown[w] |= shifted[w] & boardMask[w];
+            // north: land on cells without a wall below
+            Bits.shiftRight(reach, C, shifted);
+            for (int w = 0; w < n; w++) grown[w] |= shifted[w] & ~hWalls[w];
+
+            boolean changed = false;
+            for (int w = 0; w < n; w++) {
+                if (grown[w] != reach[w]) changed = true;
+                reach[w] = grown[w];
+            }
+            if (Bits.intersects(reach, goal)) return true;
+            if (!changed) return false;
+        }
+    }
+
     public int remainingWalls(char player) {
-        return remainingWalls.getOrDefault(player, 0);
+        int s = slot(player);
+        return s < 0 ? 0 : remainingWalls[s];
+    }
+
+    /** @return whether no player has a wall left, i.e. the game is a pure pawn race */
+    public boolean isRace() {
+        for (int s = 0; s < playerCount; s++) if (remainingWalls[s] > 0) return false;
+        return true;
+    }
+
+    /** @return copies of the horizontal and vertical wall bitsets (for wallsEqual) */
+    long[][] wallSnapshot() {
+        return new long[][]{hWalls.clone(), vWalls.clone()};
+    }
+
+    /** @return whether the walls on the board are exactly those of the snapshot */
+    boolean wallsEqual(long[][] snapshot) {
+        return Arrays.equals(hWalls, snapshot[0]) && Arrays.equals(vWalls, snapshot[1]);
+    }
+
+    /** @return number of empty wall slots */
+    public int freeWallSlotCount() {
+        int taken = Bits.count(hWalls) + Bits.count(vWalls);
+        return (R - 1) * C + R * (C - 1) - taken;
+    }
+
+    /**
+     * Fill out with the cell index (r * C + c) of every empty wall slot of the given orientation.
+     * @return number of slots written
+     */
+    public int freeWallSlots(char orient, int[] out) {
+        boolean vertical = orient == 'v' || orient == 'V';
+        long[] walls = vertical ? vWalls : hWalls;
+        int limit = vertical ? cellCount : cellCount - C;
+        int n = 0;
+        for (int w = 0; w < walls.length; w++) {
+            long free = ~walls[w];
+            if (vertical) free &= notLastCol[w];
+            while (free != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(free);
+                if (cell >= limit) break;
+                out[n++] = cell;
+                free &= free - 1;
+            }
+        }
+        return n;
     }
     /* ---------------- Judgment of victory or defeat ---------------- */
     public boolean hasWon(char p) {
-        int[] pos = getPos(p);
-        int r = pos[0], c = pos[1];
+        int s = slot(p);
+        if (s < 0) return false;
+        int r = rowOf(pos[s]), c = colOf(pos[s]);
         switch (p) {
-            case 'A': return r == 0;   
-            case 'B': return r == R - 1; 
-            case 'C': return c == C - 1; 
-            case 'D': return c == 0;    
+            case 'A': return r == 0;
+            case 'B': return r == R - 1;
+            case 'C': return c == C - 1;
+            case 'D': return c == 0;
         }
         return false;
     }
@@ -130,24 +859,24 @@ public class QuoridorBoard extends GridBoard {
              case 'A':
                  return "\u001B[31m"; // Red
              case 'B':
-                 return "\u001B[34m"; 
+                 return "\u001B[34m";
              case 'C':
-                 return "\u001B[32m"; 
+                 return "\u001B[32m";
              case 'D':
                  return "\u001B[33m";
-             default: 
-                 return "";  
+             default:
+                 return "";
         }
-        
+
     }
     public int getRows() {
-        return R; 
+        return R;
     }
     public int getCols() {
-        return C; 
+        return C;
     }
-     
-     
+
+
     /* ---------------- print ---------------- */
     @Override
     public void print() {
@@ -164,7 +893,7 @@ public class QuoridorBoard extends GridBoard {
         for (int r = 0; r < R; r++) {
             System.out.printf("%2d ", r);
             for (int c = 0; c < C; c++) {
-                char ch = cells[r][c];
+                char ch = pawnAt(cellIndex(r, c));
                 String cellStr;
                 switch (ch) {
                     case 'A': cellStr = RED + "A" + RESET; break;
@@ -177,9 +906,9 @@ public class QuoridorBoard extends GridBoard {
 
                 // vertical wall
                 if (c < C - 1) {
-                    char owner=vWalls[r][c];
-                    if (owner=='.') System.out.print(" ");
-                    else System.out.print(getColor(owner) + "|" + RESET);
+                    int cell = cellIndex(r, c);
+                    if (!Bits.get(vWalls, cell)) System.out.print(" ");
+                    else System.out.print(getColor(vOwner[cell]) + "|" + RESET);
                 }
             }
             System.out.println();
@@ -188,16 +917,24 @@ public class QuoridorBoard extends GridBoard {
             if (r < R - 1) {
                 System.out.print("    ");
                 for (int c = 0; c < C; c++) {
-                    char owner=hWalls[r][c];
-                    if (owner=='.') System.out.print("  ");
-                    else System.out.print(getColor(owner) + "--" + RESET);
+                    int cell = cellIndex(r, c);
+                    if (!Bits.get(hWalls, cell)) System.out.print("  ");
+                    else System.out.print(getColor(hOwner[cell]) + "--" + RESET);
                 }
                 System.out.println();
             }
         }
     }
+
+    /** @return symbol of the pawn on cell, or '.' if empty */
+    private char pawnAt(int cell) {
+        if (!Bits.get(occupied, cell)) return '.';
+        for (int s = 0; s < playerCount; s++) if (pos[s] == cell) return (char) ('A' + s);
+        return '.';
+    }
+
     public int getPlayerCount() {
-        return playerPos.size();
+        return playerCount;
     }
 
 }
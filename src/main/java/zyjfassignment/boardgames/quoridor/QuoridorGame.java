@@ -3,6 +3,10 @@ package zyjfassignment.boardgames.quoridor;
 import zyjfassignment.boardgames.core.GameEngine;
 import zyjfassignment.boardgames.core.strategy.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class QuoridorGame implements GameEngine {
@@ -10,7 +14,15 @@ public class QuoridorGame implements GameEngine {
     private final Scanner scanner = new Scanner(System.in);
     private final List<Character> players = new ArrayList<>();
     private final Map<Character, QuoridorStrategy> aiMap = new HashMap<>();
-    private final Map<Character, Integer> wallCount = new HashMap<>();
+    /** Thinking time per move for search-based AIs; override with -Dquoridor.aiMillis=... */
+    private static final long AI_MILLIS_PER_MOVE = Long.getLong("quoridor.aiMillis", 1000L);
+    /** Budget of the 3–4 player expert (paranoid search); override with -Dquoridor.paranoidMillis=... */
+    private static final long PARANOID_MILLIS_PER_MOVE = Long.getLong("quoridor.paranoidMillis", 200L);
+    /** Opening book file (see OpeningBookBuilder); override with -Dquoridor.book=... */
+    private static final String BOOK_PATH = System.getProperty("quoridor.book", "quoridor.book");
+    private final Set<Character> bookPlayers = new HashSet<>();
+    private OpeningBook book;
+    private final RaceSolver race = new RaceSolver();
 
     public QuoridorGame(QuoridorBoard board) {
         this.board = board;
@@ -24,71 +36,77 @@ public class QuoridorGame implements GameEngine {
     public void playLoop(Scanner in) {
         System.out.println("Welcome to Quoridor!");
         int n = board.getPlayerCount();
-        System.out.println("Players detected: " + n);
+        System.out.println("Players detected: " + n + ", board " + board.getRows() + "x" + board.getCols());
         // Initialize player and bot
         for (int i = 0; i < n; i++) {
             char sym = (char) ('A' + i);
             String type = "";
             boolean valid = false;
             while (!valid) {
-                System.out.print("Is player " + sym + " an AI?  (1-none / 2-easy / 3-hard): ");
+                System.out.print("Is player " + sym + " an AI?  (1-none / 2-easy / 3-hard / 4-expert / 5-mcts): ");
                 type = in.nextLine().trim().toLowerCase();
                 if (type.equals("1")) type = "none";
                 else if (type.equals("2")) type = "easy";
                 else if (type.equals("3")) type = "hard";
-                if (type.equals("none") || type.equals("easy") || type.equals("hard")) valid = true;
+                else if (type.equals("4")) type = "expert";
+                else if (type.equals("5")) type = "mcts";
+                if (type.equals("none") || type.equals("easy") || type.equals("hard")
+                        || type.equals("expert") || type.equals("mcts")) valid = true;
             }
             if (type.equals("easy")) aiMap.put(sym, new EasyQuoridorStrategy());
             else if (type.equals("hard")) aiMap.put(sym, new HardQuoridorStrategy());
+            else if (type.equals("expert") && n > 2) aiMap.put(sym, new ParanoidQuoridorStrategy(PARANOID_MILLIS_PER_MOVE));
+            else if (type.equals("expert")) aiMap.put(sym, new AlphaBetaQuoridorStrategy(AI_MILLIS_PER_MOVE));
+            else if (type.equals("mcts")) aiMap.put(sym, new MctsQuoridorStrategy(AI_MILLIS_PER_MOVE, Runtime.getRuntime().availableProcessors()));
             else aiMap.put(sym, null);
+            if (!type.equals("none") && !type.equals("easy")) bookPlayers.add(sym);
             players.add(sym);
-            wallCount.put(sym, 10);
-            board.setRemainingWalls(sym, 10);
+            board.setRemainingWalls(sym, board.defaultWallBudget());
         }
+        book = openBook();
+        try {
+            play(in);
+        } finally {
+            closeStrategies();
+        }
+    }
+
+    private void play(Scanner in) {
         boolean running = true;
         int turn = 0;
+        int passes = 0;   // consecutive PASS moves
         while (running) {
             board.print();
             char sym = players.get(turn);
-            System.out.println("\nPlayer " + sym + "'s turn (walls: " + wallCount.get(sym) + ")");
+            board.setSideToMove(sym);
+            if (isDrawnRace()) {
+                System.out.println("\nDraw: no walls are left and neither player can force a win.");
+                break;
+            }
+            System.out.println("\nPlayer " + sym + "'s turn (walls: " + board.remainingWalls(sym) + ")");
             QuoridorStrategy ai = aiMap.get(sym);
             boolean turnCompleted = false;
             while (!turnCompleted) {
-                String command;
-                if (ai != null) {
-                    command = ai.decideMove(board, sym);
-                    System.out.println("AI plays: " + command);
+                int move;
+                int bookMove = book != null && bookPlayers.contains(sym) ? book.lookup(board.hash()) : -1;
+                if (ai != null && bookMove >= 0 && board.isLegalMove(bookMove)) {
+                    move = bookMove;
+                    System.out.println("AI plays: " + QuoridorMove.format(move) + " (book)");
+                } else if (ai != null) {
+                    move = ai.chooseMove(board, sym);
+                    System.out.println("AI plays: " + QuoridorMove.format(move));
                 } else {
                     System.out.print("Enter move (e.g. MOVE 3 4 or WALL H/V 3 4 or PASS): ");
-                    command = in.nextLine().trim().toUpperCase();
+                    startPondering();   // the AIs keep searching while the human thinks
+                    String line = in.nextLine();
+                    stopPondering();
+                    move = QuoridorMove.parse(line);
                 }
-                boolean success = false;
-                try {
-                    String[] parts = command.split("\\s+");
-                    if (parts[0].equals("MOVE")) {
-                        int r = Integer.parseInt(parts[1]);
-                        int c = Integer.parseInt(parts[2]);
-                        success = board.move(sym, r, c);
-                    } else if (parts[0].equals("WALL")) {
-                        if (wallCount.get(sym) <= 0) {
-                            success = false;
-                        } else {
-                            char orient = parts[1].charAt(0);
-                            int r = Integer.parseInt(parts[2]);
-                            int c = Integer.parseInt(parts[3]);
-                            success = board.placeWall(orient, r, c, sym);
-                            if (success) {
-                                wallCount.put(sym, wallCount.get(sym) - 1);
-                                board.decreaseWall(sym);
-                            }
-                        }
-                    } else if (parts[0].equals("PASS")) {
-                        success = true;
-                    } else {
-                        success = false;
-                    }
-                } catch (Exception e) {
-                    success = false;
+                // every move (also PASS) goes through the board's legality check
+                boolean success = move >= 0 && board.isLegalMove(move);
+                if (success) {
+                    board.applyMove(move);
+                    passes = move == QuoridorMove.PASS ? passes + 1 : 0;
                 }
 
                 if (!success && ai == null) {
@@ -104,7 +122,57 @@ public class QuoridorGame implements GameEngine {
                 running = false;
                 break;
             }
+            // a full round of passes leaves the position unchanged, so the game would never end
+            if (passes == players.size()) {
+                board.print();
+                System.out.println("\nDraw: every player passed in a full round.");
+                break;
+            }
             turn = (turn + 1) % players.size();
         }
     }
+
+    /** @return whether the position is a two-player race that is drawn with best play */
+    private boolean isDrawnRace() {
+        return board.isRace() && RaceSolver.isExact(board) && race.solve(board) == 0;
+    }
+
+    private void startPondering() {
+        for (QuoridorStrategy ai : aiMap.values()) {
+            if (ai instanceof PonderingStrategy) ((PonderingStrategy) ai).startPondering(board);
+        }
+    }
+
+    private void stopPondering() {
+        for (QuoridorStrategy ai : aiMap.values()) {
+            if (ai instanceof PonderingStrategy) ((PonderingStrategy) ai).stopPondering();
+        }
+    }
+
+    /** Release the AIs' resources (worker threads) once the game is over. */
+    private void closeStrategies() {
+        for (QuoridorStrategy ai : aiMap.values()) {
+            if (!(ai instanceof AutoCloseable)) continue;
+            try {
+                ((AutoCloseable) ai).close();
+            } catch (Exception e) {
+                throw new IllegalStateException("strategy could not be closed", e);
+            }
+        }
+    }
+
+    /** @return the opening book for this board setup, or null if there is none */
+    private OpeningBook openBook() {
+        Path file = Paths.get(BOOK_PATH);
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            OpeningBook b = OpeningBook.open(file);
+            if (!b.matches(board)) return null;
+            System.out.println("Opening book: " + b.size() + " positions from " + file);
+            return b;
+        } catch (IOException e) {
+            System.out.println("Opening book ignored: " + e.getMessage());
+            return null;
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package zyjfassignment.boardgames.quoridor;
+
+/**
+ * Quoridor moves packed into a single int:
+ *   bits 16-17  type (PASS / STEP / WALL_H / WALL_V)
+ *   bits 8-15   row
+ *   bits 0-7    col
+ * STEP targets the cell (row, col); walls use the same slot coordinates
+ * as QuoridorBoard.placeWall. PASS is 0.
+ */
+public final class QuoridorMove {
+    public static final int PASS = 0;
+    public static final int STEP = 1;
+    public static final int WALL_H = 2;
+    public static final int WALL_V = 3;
+
+    private QuoridorMove() {}
+
+    public static int step(int row, int col) {
+        return (STEP << 16) | (row << 8) | col;
+    }
+
+    /** @return encoded wall, orient is 'H'/'h' or 'V'/'v' */
+    public static int wall(char orient, int row, int col) {
+        int type = (orient == 'v' || orient == 'V') ? WALL_V : WALL_H;
+        return (type << 16) | (row << 8) | col;
+    }
+
+    public static int type(int move) {
+        return move >>> 16;
+    }
+
+    public static int row(int move) {
+        return (move >>> 8) & 0xFF;
+    }
+
+    public static int col(int move) {
+        return move & 0xFF;
+    }
+
+    public static boolean isWall(int move) {
+        int t = type(move);
+        return t == WALL_H || t == WALL_V;
+    }
+
+    /**
+     * Parse a console command ("MOVE r c", "WALL H r c", "WALL V r c", "PASS";
+     * case and spacing are ignored). Only the syntax is checked, not legality.
+     * @return encoded move, or -1 if the text is not a command
+     */
+    public static int parse(String command) {
+        String[] parts = command.trim().toUpperCase().split("\\s+");
+        try {
+            if (parts[0].equals("PASS") && parts.length == 1) return PASS;
+            if (parts[0].equals("MOVE") && parts.length == 3) {
+                int r = Integer.parseInt(parts[1]), c = Integer.parseInt(parts[2]);
+                return inRange(r, c) ? step(r, c) : -1;
+            }
+            if (parts[0].equals("WALL") && parts.length == 4
+                    && (parts[1].equals("H") || parts[1].equals("V"))) {
+                int r = Integer.parseInt(parts[2]), c = Integer.parseInt(parts[3]);
+                return inRange(r, c) ? wall(parts[1].charAt(0), r, c) : -1;
+            }
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    private static boolean inRange(int r, int c) {
+        return r >= 0 && r <= 0xFF && c >= 0 && c <= 0xFF;
+    }
+
+    /** @return the move as a console command: "MOVE r c", "WALL H r c", "WALL V r c" or "PASS" */
+    public static String format(int move) {
+        switch (type(move)) {
+            case STEP:   return "MOVE " + row(move) + " " + col(move);
+            case WALL_H: return "WALL H " + row(move) + " " + col(move);
+            case WALL_V: return "WALL V " + row(move) + " " + col(move);
+            default:     return "PASS";
+        }
+    }
+}
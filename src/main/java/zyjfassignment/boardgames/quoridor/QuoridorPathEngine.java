@@ -0,0 +1,73 @@
+package zyjfassignment.boardgames.quoridor;
+
+/**
+ * Reusable pawn-aware BFS over a QuoridorBoard: other pawns block, walls block.
+ *
+ * Works on cell indices only. The queue is a power-of-two ring buffer, the
+ * visited set is a generation-stamped int[] (bumping the generation clears it)
+ * and predecessors are a parent int[], so a search allocates nothing once the
+ * arrays have been sized for the board.
+ */
+public class QuoridorPathEngine {
+    private int[] ring = new int[0];
+    private int[] seen = new int[0];
+    private int[] parent = new int[0];
+    private int mask;
+    private int generation;
+
+    /** @return number of steps to the player's goal edge avoiding pawns, or -1 if none exists */
+    public int shortestPath(QuoridorBoard board, char player) {
+        int goal = search(board, player);
+        if (goal < 0) return -1;
+        int steps = 0;
+        for (int x = goal; parent[x] >= 0; x = parent[x]) steps++;
+        return steps;
+    }
+
+    /** @return first cell on a shortest pawn-avoiding path to the goal, or -1 if none exists / already there */
+    public int nextStep(QuoridorBoard board, char player) {
+        int goal = search(board, player);
+        if (goal < 0) return -1;
+        int x = goal;
+        if (parent[x] < 0) return -1;
+        while (parent[parent[x]] >= 0) x = parent[x];
+        return x;
+    }
+
+    /** Run the BFS; @return the goal cell reached first, or -1. */
+    private int search(QuoridorBoard board, char player) {
+        int start = board.cellOf(player);
+        if (start < 0) return -1;
+        ensureCapacity(board.cellCount());
+        if (++generation == 0) {
+            java.util.Arrays.fill(seen, 0);
+            generation = 1;
+        }
+        int head = 0, tail = 0;
+        ring[tail++ & mask] = start;
+        seen[start] = generation;
+        parent[start] = -1;
+        while (head != tail) {
+            int x = ring[head++ & mask];
+            if (board.isGoalCell(player, x)) return x;
+            for (int dir = 0; dir < 4; dir++) {
+                int y = board.neighbor(x, dir);
+                if (y < 0 || seen[y] == generation || board.isOccupied(y)) continue;
+                seen[y] = generation;
+                parent[y] = x;
+                ring[tail++ & mask] = y;
+            }
+        }
+        return -1;
+    }
+
+    private void ensureCapacity(int cells) {
+        if (seen.length >= cells) return;
+        int cap = Integer.highestOneBit(Math.max(1, cells - 1)) << 1;
+        ring = new int[cap];
+        mask = cap - 1;
+        seen = new int[cells];
+        parent = new int[cells];
+        generation = 0;
+    }
+}
@@ -0,0 +1,207 @@
+package zyjfassignment.boardgames.quoridor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft for Quoridor: the number of legal move sequences of a given length
+ * from a position, counted with generateMoves / applyMove / undoMove.
+ *
+ * A position where someone has won has no moves, so it only counts at depth 0;
+ * PASS is generated only when nothing else is legal (see generateMoves). The
+ * parallel version splits the root moves over a ForkJoinPool, each task on its
+ * own board copy. Counts pin down move generation, wall legality and undo, so
+ * any board optimization can be checked and timed in one run:
+ *
+ *   --verify  recount the known positions below with both generators
+ *             (generateMoves, and generatePseudoLegalMoves + pathsIntact),
+ *             check that undo restores the hash, and compare with the table.
+ *
+ * Run: java -cp out zyjfassignment.boardgames.quoridor.QuoridorPerft
+ *          [size=9] [players=2] [depth=3] [threads=processors] | --verify
+ */
+public final class QuoridorPerft {
+    /** Root moves per task below which the range is counted instead of split. */
+    private static final int SPLIT = 4;
+
+    /** Walls on both sides, pawns moved sideways. */
+    private static final String MIDGAME = "MOVE 7 4;WALL H 0 4;WALL V 7 3;MOVE 0 3;MOVE 7 5;WALL H 6 5";
+
+    /** Known counts: size, players, setup moves (from the start, walls at the default budget), depth, leaves. */
+    private static final Object[][] KNOWN = {
+            {5, 2, "", 1, 43L},
+            {5, 2, "", 2, 1_806L},
+            {5, 2, "", 3, 74_079L},
+            {5, 2, "", 4, 2_963_816L},
+            {9, 2, "", 1, 147L},
+            {9, 2, "", 2, 21_462L},
+            {9, 2, "", 3, 3_112_127L},
+            {7, 3, "", 1, 87L},
+            {7, 3, "", 2, 7_482L},
+            {7, 3, "", 3, 635_955L},
+            {9, 4, "", 1, 147L},
+            {9, 4, "", 2, 21_462L},
+            {9, 2, MIDGAME, 1, 144L},
+            {9, 2, MIDGAME, 2, 20_592L},
+            {9, 2, MIDGAME, 3, 2_924_191L},
+            {3, 2, "", 6, 2_270_578L},
+    };
+
+    private QuoridorPerft() {}
+
+    /** @return leaves of the legal move tree of the given depth (board is left as it was) */
+    public static long perft(QuoridorBoard board, int depth) {
+        if (depth == 0) return 1;
+        if (board.winner() != 0) return 0;
+        int[] moves = new int[board.maxMoves()];
+        int n = board.generateMoves(moves);
+        if (depth == 1) return n;
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            board.applyMove(moves[i]);
+            total += perft(board, depth - 1);
+            board.undoMove();
+        }
+        return total;
+    }
+
+    /** Parallel perft: root moves are split across the pool. */
+    public static long perft(QuoridorBoard board, int depth, ForkJoinPool pool) {
+        if (depth <= 1 || board.winner() != 0) return perft(board, depth);
+        int[] moves = new int[board.maxMoves()];
+        int n = board.generateMoves(moves);
+        return pool.invoke(new RootTask(board, moves, 0, n, depth - 1));
+    }
+
+    /** Counts the subtrees of root moves [from, to), each on a copy of the root board. */
+    private static final class RootTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+        private final QuoridorBoard root;
+        private final int[] moves;
+        private final int from, to, depth;
+
+        RootTask(QuoridorBoard root, int[] moves, int from, int to, int depth) {
+            this.root = root;
+            this.moves = moves;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= SPLIT) {
+                QuoridorBoard work = root.copy();
+                long total = 0;
+                for (int i = from; i < to; i++) {
+                    work.applyMove(moves[i]);
+                    total += perft(work, depth);
+                    work.undoMove();
+                }
+                return total;
+            }
+            int mid = (from + to) >>> 1;
+            RootTask left = new RootTask(root, moves, from, mid, depth);
+            left.fork();
+            long right = new RootTask(root, moves, mid, to, depth).compute();
+            return right + left.join();
+        }
+    }
+
+    /**
+     * Reference count with the other generator: pseudo-legal walls kept only if
+     * pathsIntact() after playing them. Also checks that undo restores the hash.
+     */
+    static long pseudoPerft(QuoridorBoard board, int depth) {
+        if (depth == 0) return 1;
+        if (board.winner() != 0) return 0;
+        int[] moves = new int[board.maxMoves()];
+        int n = board.generatePseudoLegalMoves(moves);
+        long before = board.hash();
+        long total = 0;
+        int legal = 0;
+        for (int i = 0; i < n; i++) {
+            if (moves[i] == QuoridorMove.PASS) continue;
+            board.applyMove(moves[i]);
+            if (board.pathsIntact()) {
+                legal++;
+                total += perft1(board, depth);
+            }
+            board.undoMove();
+            if (board.hash() != before) {
+                throw new IllegalStateException("undo of " + QuoridorMove.format(moves[i]) + " changed the hash");
+            }
+        }
+        if (legal == 0) {   // nothing else is legal: PASS
+            board.applyMove(QuoridorMove.PASS);
+            total = perft1(board, depth);
+            board.undoMove();
+        }
+        return total;
+    }
+
+    private static long perft1(QuoridorBoard child, int depth) {
+        return depth == 1 ? 1 : pseudoPerft(child, depth - 1);
+    }
+
+    /** @return a board at the start position (default wall budget, A to move) after the setup moves */
+    static QuoridorBoard position(int size, int players, String setup) {
+        QuoridorBoard board = new QuoridorBoard(players, size);
+        for (int s = 0; s < players; s++) board.setRemainingWalls((char) ('A' + s), board.defaultWallBudget());
+        board.setSideToMove('A');
+        for (String text : setup.split(";")) {
+            if (text.trim().isEmpty()) continue;
+            int move = QuoridorMove.parse(text);
+            if (move < 0 || !board.isLegalMove(move)) throw new IllegalArgumentException("Illegal setup move: " + text);
+            board.applyMove(move);
+        }
+        return board;
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--verify")) {
+            System.exit(verify() ? 0 : 1);
+        }
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : QuoridorBoard.DEFAULT_SIZE;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        QuoridorBoard board = position(size, players, "");
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        System.out.printf("perft %dx%d, %d players, %d threads%n", size, size, players, threads);
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long leaves = perft(board, d, pool);
+            double secs = (System.nanoTime() - start) / 1e9;
+            System.out.printf("depth %2d %,18d leaves %10.3f s %,16.0f leaves/s%n", d, leaves, secs, leaves / secs);
+        }
+        pool.shutdown();
+    }
+
+    /** Recount every known position; @return whether all counts matched */
+    private static boolean verify() {
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        boolean ok = true;
+        long leaves = 0;
+        long start = System.nanoTime();
+        for (Object[] k : KNOWN) {
+            int size = (Integer) k[0], players = (Integer) k[1], depth = (Integer) k[3];
+            String setup = (String) k[2];
+            long expected = (Long) k[4];
+            QuoridorBoard board = position(size, players, setup);
+            long parallel = perft(board, depth, pool);
+            long reference = pseudoPerft(board, depth);
+            boolean match = parallel == expected && reference == expected;
+            ok &= match;
+            leaves += parallel;
+            System.out.printf("%-4s %dx%d %dp depth %d%s: %,d (reference %,d, expected %,d)%n",
+                    match ? "ok" : "FAIL", size, size, players, depth, setup.isEmpty() ? "" : " [" + setup + "]",
+                    parallel, reference, expected);
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s, %,d leaves in %.2f s%n", ok ? "all counts match" : "MISMATCH", leaves, secs);
+        pool.shutdown();
+        return ok;
+    }
+}
@@ -0,0 +1,205 @@
+package zyjfassignment.boardgames.quoridor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endgame solver for pure pawn races (no player has walls left).
+ *
+ * Two players: exact retrograde analysis over every (pawn A, pawn B, side to
+ * move) state of the current walls. Pawns block each other (this ruleset has
+ * no jumps) and PASS is always legal, so mutual blocking can be a draw; the
+ * table records win / loss / draw and the number of plies to the end under
+ * optimal play (fastest win, slowest loss). Tables are cached per wall layout,
+ * so searches that stay inside one race pay for it once.
+ *
+ * Three or four players, or boards above MAX_EXACT_CELLS cells, use a greedy
+ * fallback: step down the distance field, route around pawns if blocked.
+ *
+ * Not thread-safe; use one instance per searcher.
+ */
+public class RaceSolver {
+    /** Largest board (in cells) solved exactly; 2 * cells^2 states. */
+    public static final int MAX_EXACT_CELLS = 1024;
+
+    private static final byte DRAW = 0, WIN = 1, LOSS = 2;   // for the side to move
+
+    private final QuoridorPathEngine paths = new QuoridorPathEngine();
+    private final Map<Integer, Table> cache;
+    private long tablesBuilt;
+
+    public RaceSolver() {
+        cache = new LinkedHashMap<Integer, Table>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Table> eldest) {
+                return size() > 8;
+            }
+        };
+    }
+
+    /** @return whether race positions on this board are solved exactly */
+    public static boolean isExact(QuoridorBoard board) {
+        return board.getPlayerCount() == 2 && board.cellCount() <= MAX_EXACT_CELLS;
+    }
+
+    /**
+     * Exact result of a two-player race for the side to move.
+     * @return n &gt; 0: wins in n plies, n &lt; 0: loses in -n plies, 0: draw
+     * @throws IllegalStateException if the position is not an exact race position
+     */
+    public int solve(QuoridorBoard board) {
+        if (!board.isRace() || !isExact(board)) throw new IllegalStateException("Not a two-player race");
+        Table t = table(board);
+        int i = t.index(board.cellOf('A'), board.cellOf('B'), board.sideToMove() - 'A');
+        return t.result[i] == WIN ? t.plies[i] : t.result[i] == LOSS ? -t.plies[i] : 0;
+    }
+
+    /**
+     * Best race move for player: perfect play with two players, otherwise greedy.
+     * Walls are never returned (nobody has any in a race).
+     */
+    public int bestMove(QuoridorBoard board, char player) {
+        if (board.getPlayerCount() != 2 || !isExact(board) || !board.isRace()) return greedyMove(board, player);
+        Table t = table(board);
+        int me = player - 'A', other = 1 - me;
+        int a = board.cellOf('A'), b = board.cellOf('B');
+        int mine = me == 0 ? a : b, theirs = me == 0 ? b : a;
+        int myDist = board.distanceToGoal(player);
+
+        int best = QuoridorMove.PASS;
+        long bestKey = rank(t, t.index(a, b, other), false);
+        for (int dir = 0; dir < 4; dir++) {
+            int to = board.neighbor(mine, dir);
+            if (to < 0 || to == theirs) continue;
+            int next = me == 0 ? t.index(to, b, other) : t.index(a, to, other);
+            long key = rank(t, next, board.distanceToGoal(player, to) < myDist);
+            if (key > bestKey) {
+                bestKey = key;
+                best = QuoridorMove.step(board.rowOf(to), board.colOf(to));
+            }
+        }
+        return best;
+    }
+
+    /** Number of exact tables built so far (cache misses). */
+    public long tablesBuilt() {
+        return tablesBuilt;
+    }
+
+    /* ---------------- exact tables ---------------- */
+    /** Retrograde table for one wall layout; index = ((a * cells) + b) * 2 + side. */
+    private static final class Table {
+        final long[][] walls;
+        final int cells;
+        final byte[] result;
+        final int[] plies;
+
+        Table(long[][] walls, int cells) {
+            this.walls = walls;
+            this.cells = cells;
+            result = new byte[2 * cells * cells];
+            plies = new int[2 * cells * cells];
+        }
+
+        int index(int a, int b, int side) {
+            return (a * cells + b) * 2 + side;
+        }
+    }
+
+    private Table table(QuoridorBoard board) {
+        int key = java.util.Arrays.deepHashCode(board.wallSnapshot());
+        Table t = cache.get(key);
+        if (t != null && board.wallsEqual(t.walls)) return t;
+        t = build(board);
+        cache.put(key, t);
+        tablesBuilt++;
+        return t;
+    }
+
+    private static Table build(QuoridorBoard board) {
+        int n = board.cellCount();
+        Table t = new Table(board.wallSnapshot(), n);
+        // flat copies of the board's adjacency and goal edges for the inner loops
+        int[] next = new int[4 * n];
+        boolean[] homeA = new boolean[n], homeB = new boolean[n];
+        for (int c = 0; c < n; c++) {
+            for (int dir = 0; dir < 4; dir++) next[4 * c + dir] = board.neighbor(c, dir);
+            homeA[c] = board.isGoalCell('A', c);
+            homeB[c] = board.isGoalCell('B', c);
+        }
+        int states = 2 * n * n;
+        byte[] pending = new byte[states];   // unresolved successors (at most 4 steps + PASS)
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                if (a == b) continue;
+                for (int side = 0; side < 2; side++) {
+                    int i = t.index(a, b, side);
+                    if (homeA[a] || homeB[b]) {
+                        boolean otherHome = side == 0 ? homeB[b] : homeA[a];
+                        t.result[i] = otherHome ? LOSS : WIN;
+                        queue[tail++] = i;
+                    } else {
+                        int from = side == 0 ? a : b, block = side == 0 ? b : a;
+                        int moves = 1;   // PASS
+                        for (int dir = 0; dir < 4; dir++) {
+                            int to = next[4 * from + dir];
+                            if (to >= 0 && to != block) moves++;
+                        }
+                        pending[i] = (byte) moves;
+                    }
+                }
+            }
+        }
+
+        // states leave the queue in order of plies, so wins are fastest and losses slowest
+        while (head < tail) {
+            int s = queue[head++];
+            int side = s & 1;
+            int ab = s >>> 1;
+            int a = ab / n, b = ab % n;
+            int mover = 1 - side;                      // who moved into s
+            int moved = mover == 0 ? a : b, block = mover == 0 ? b : a;
+            for (int dir = -1; dir < 4; dir++) {       // -1 = the mover passed
+                int from = dir < 0 ? moved : next[4 * moved + dir];
+                if (from < 0 || from == block) continue;
+                int pa = mover == 0 ? from : a, pb = mover == 0 ? b : from;
+                if (homeA[pa] || homeB[pb]) continue;  // game was already over
+                int p = t.index(pa, pb, mover);
+                if (t.result[p] != DRAW) continue;
+                if (t.result[s] == LOSS) {
+                    t.result[p] = WIN;
+                } else if (--pending[p] == 0) {
+                    t.result[p] = LOSS;
+                } else {
+                    continue;
+                }
+                t.plies[p] = t.plies[s] + 1;
+                queue[tail++] = p;
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Order successors from the mover's point of view: state next is seen by
+     * the opponent. Higher is better: fast wins, then draws (downhill first),
+     * then slow losses.
+     */
+    private static long rank(Table t, int next, boolean downhill) {
+        byte r = t.result[next];
+        if (r == LOSS) return 3_000_000_000L - t.plies[next];
+        if (r == DRAW) return 2_000_000_000L + (downhill ? 1 : 0);
+        return t.plies[next];
+    }
+
+    /* ---------------- greedy fallback ---------------- */
+    private int greedyMove(QuoridorBoard board, char player) {
+        int step = board.nextStepTowardGoal(player);
+        if (step < 0) step = paths.nextStep(board, player);
+        if (step < 0) return QuoridorMove.PASS;
+        return QuoridorMove.step(board.rowOf(step), board.colOf(step));
+    }
+}
@@ -0,0 +1,191 @@
+package zyjfassignment.boardgames.quoridor;
+
+import java.util.stream.IntStream;
+
+/**
+ * Wall candidate generator: instead of every free slot, only walls that can
+ * matter right now.
+ *
+ *  - walls cutting an edge of the target's shortest-path DAG (every edge
+ *    u -> v with dist(v) = dist(u) - 1 reachable from its pawn). Walls only
+ *    remove edges, so a wall off this DAG cannot lengthen the target's path;
+ *  - walls on the edges around each pawn and its neighbours (blocking and
+ *    shielding moves).
+ *
+ * {@link #scored} also plays every candidate and ranks it by delta path
+ * length (target's increase minus our own), dropping walls that would cut
+ * someone off. Large candidate sets are scored in parallel on the common
+ * ForkJoinPool, each chunk on its own board copy.
+ *
+ * Not thread-safe; use one instance per searcher.
+ */
+public class WallCandidates {
+    /** Candidate count from which scoring is split across cores. */
+    public static final int PARALLEL_THRESHOLD = 48;
+
+    private int[] mark = new int[0];    // slot id (H: cell, V: cellCount + cell) == markGen -> already listed
+    private int markGen;
+    private int[] seen = new int[0];    // DAG cells visited (== markGen)
+    private int[] queue = new int[0];
+
+    private int lastFree, lastCandidates;
+    private long decisions, totalFree, totalCandidates;
+
+    /**
+     * Fill out with candidate walls (encoded, see QuoridorMove) against target.
+     * Slots are free but not checked for cutting anyone off.
+     * @return number of candidates written
+     */
+    public int generate(QuoridorBoard board, char target, int[] out) {
+        int cells = board.cellCount();
+        if (mark.length < 2 * cells) {
+            mark = new int[2 * cells];
+            seen = new int[cells];
+            queue = new int[cells];
+            markGen = 0;
+        }
+        if (++markGen == 0) {
+            java.util.Arrays.fill(mark, 0);
+            java.util.Arrays.fill(seen, 0);
+            markGen = 1;
+        }
+        int n = 0;
+
+        // shortest-path DAG of the target (distance fields ignore pawns)
+        int start = board.cellOf(target);
+        if (start >= 0 && board.distanceToGoal(target, start) != Integer.MAX_VALUE) {
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            seen[start] = markGen;
+            while (head < tail) {
+                int u = queue[head++];
+                int du = board.distanceToGoal(target, u);
+                if (du == 0) continue;
+                for (int dir = 0; dir < 4; dir++) {
+                    int v = board.neighbor(u, dir);
+                    if (v < 0 || board.distanceToGoal(target, v) != du - 1) continue;
+                    n = add(board, u, dir, out, n);
+                    if (seen[v] != markGen) {
+                        seen[v] = markGen;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+        }
+
+        // edges around every pawn and its open neighbours
+        for (int s = 0; s < board.getPlayerCount(); s++) {
+            int p = board.cellOf((char) ('A' + s));
+            for (int dir = 0; dir < 4; dir++) {
+                n = add(board, p, dir, out, n);
+                int q = board.neighbor(p, dir);
+                if (q < 0) continue;
+                for (int d2 = 0; d2 < 4; d2++) n = add(board, q, d2, out, n);
+            }
+        }
+
+        int free = board.freeWallSlotCount();
+        lastFree = free;
+        lastCandidates = n;
+        decisions++;
+        totalFree += free;
+        totalCandidates += n;
+        return n;
+    }
+
+    /**
+     * Generate candidates against target and score them for player:
+     * (target's distance increase) - (player's distance increase).
+     * Walls that leave someone without a path are dropped.
+     * moves/scores are filled best first.
+     * @return number of legal scored walls
+     */
+    public int scored(QuoridorBoard board, char player, char target, int[] moves, int[] scores) {
+        int n = generate(board, target, moves);
+        if (n == 0) return 0;
+        int chunks = n >= PARALLEL_THRESHOLD
+                ? Math.min(n / 16, Runtime.getRuntime().availableProcessors()) : 1;
+        if (chunks <= 1) {
+            scoreRange(board, player, target, moves, scores, 0, n);   // apply/undo leaves board as it was
+        } else {
+            final int size = (n + chunks - 1) / chunks;
+            IntStream.range(0, chunks).parallel().forEach(k ->
+                    scoreRange(board.copy(), player, target, moves, scores, k * size, Math.min(n, (k + 1) * size)));
+        }
+        // compact away illegal walls, then insertion sort best first
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            if (scores[i] == Integer.MIN_VALUE) continue;
+            int m = moves[i], s = scores[i], j = kept - 1;
+            while (j >= 0 && scores[j] < s) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = m;
+            scores[j + 1] = s;
+            kept++;
+        }
+        return kept;
+    }
+
+    /** Free wall slots seen by the last generate call. */
+    public int lastFreeSlots() {
+        return lastFree;
+    }
+
+    /** Candidates returned by the last generate call. */
+    public int lastCandidates() {
+        return lastCandidates;
+    }
+
+    /** Free slots the last generate call skipped. */
+    public int lastPruned() {
+        return lastFree - lastCandidates;
+    }
+
+    /** @return fraction of free slots pruned over every generate call so far */
+    public double prunedRatio() {
+        return totalFree == 0 ? 0 : 1.0 - (double) totalCandidates / totalFree;
+    }
+
+    /** @return e.g. "walls: 41/128 candidates (68% pruned), avg 37.2 over 120 calls" */
+    public String stats() {
+        return String.format("walls: %d/%d candidates (%.0f%% pruned), avg %.1f over %d calls",
+                lastCandidates, lastFree, 100.0 * prunedRatio(),
+                decisions == 0 ? 0.0 : (double) totalCandidates / decisions, decisions);
+    }
+
+    /* ---------------- helpers ---------------- */
+    /** Play each wall on work and store its score (MIN_VALUE = illegal). */
+    private static void scoreRange(QuoridorBoard work, char player, char target,
+                                   int[] moves, int[] scores, int from, int to) {
+        int myDist = work.distanceToGoal(player);
+        int targetDist = work.distanceToGoal(target);
+        for (int i = from; i < to; i++) {
+            work.applyMove(moves[i]);
+            scores[i] = work.pathsIntact()
+                    ? (work.distanceToGoal(target) - targetDist) - (work.distanceToGoal(player) - myDist)
+                    : Integer.MIN_VALUE;
+            work.undoMove();
+        }
+    }
+
+    /** Append the wall blocking the edge from cell in direction dir, if that slot is free and new. */
+    private int add(QuoridorBoard board, int cell, int dir, int[] out, int n) {
+        int r = board.rowOf(cell), c = board.colOf(cell);
+        char orient;
+        switch (dir) {
+            case QuoridorBoard.NORTH: orient = 'H'; r--; break;
+            case QuoridorBoard.SOUTH: orient = 'H'; break;
+            case QuoridorBoard.WEST:  orient = 'V'; c--; break;
+            default:                  orient = 'V'; break;
+        }
+        if (!board.isWallSlotFree(orient, r, c)) return n;   // off the board or already walled
+        int id = (orient == 'H' ? 0 : board.cellCount()) + board.cellIndex(r, c);
+        if (mark[id] == markGen) return n;
+        mark[id] = markGen;
+        out[n++] = QuoridorMove.wall(orient, r, c);
+        return n;
+    }
+}
@@ -0,0 +1,52 @@
+package zyjfassignment.boardgames.quoridor;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zobrist keys for one board size. Keys come from a fixed seed, so a position
+ * hashes to the same value in every run; boards of the same size share one table.
+ */
+final class Zobrist {
+    /** Wall counts at or above this share the last key. */
+    static final int MAX_WALL_COUNT = 511;
+
+    private static final Map<Integer, Zobrist> CACHE = new ConcurrentHashMap<>();
+
+    final long[] pawn;        // [slot * cells + cell]
+    final long[] hWall;       // [cell]
+    final long[] vWall;       // [cell]
+    final long[] wallCount;   // [slot * (MAX_WALL_COUNT + 1) + count]
+    final long[] side;        // [slot]
+    private final int cells;
+
+    private Zobrist(int rows, int cols) {
+        cells = rows * cols;
+        SplittableRandom rng = new SplittableRandom(0x5175_6F72_6964_6F72L ^ ((long) rows << 32 | cols));
+        pawn = fill(rng, 4 * cells);
+        hWall = fill(rng, cells);
+        vWall = fill(rng, cells);
+        wallCount = fill(rng, 4 * (MAX_WALL_COUNT + 1));
+        side = fill(rng, 4);
+    }
+
+    static Zobrist forSize(int rows, int cols) {
+        return CACHE.computeIfAbsent(rows << 16 | cols, k -> new Zobrist(rows, cols));
+    }
+
+    long pawn(int slot, int cell) {
+        return pawn[slot * cells + cell];
+    }
+
+    long wallCount(int slot, int count) {
+        int c = Math.max(0, Math.min(MAX_WALL_COUNT, count));
+        return wallCount[slot * (MAX_WALL_COUNT + 1) + c];
+    }
+
+    private static long[] fill(SplittableRandom rng, int n) {
+        long[] a = new long[n];
+        for (int i = 0; i < n; i++) a[i] = rng.nextLong();
+        return a;
+    }
+}
@@ -0,0 +1,169 @@
+package zyjfassignment.boardgames.sliding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only additive pattern databases for one puzzle size, backed by
+ * memory-mapped files (one per pattern, written by PatternDatabaseBuilder).
+ *
+ * A pattern is a set of tiles; its table gives, for every placement of those
+ * tiles, the number of moves of pattern tiles needed to bring them home when
+ * the other tiles are indistinguishable: the blank still has to reach a
+ * pattern tile to move it, but its moves among the other tiles are free.
+ * Only pattern-tile moves are counted, so the values of disjoint patterns add
+ * up to a lower bound on the solution length.
+ *
+ * Such a value has the parity of the pattern's Manhattan distance, so a file
+ * stores (value - Manhattan) / 2 in one nibble per placement (15 = at least
+ * 15). Placements are ranked in tile order: position i contributes its rank
+ * among the cells the earlier tiles leave free, in mixed radix
+ * (cells, cells - 1, ..., cells - k + 1).
+ *
+ * File layout (big endian):
+ *   header  int magic "SPD1", int version, int N, int k, long entry count,
+ *           k x int tile
+ *   entries (count + 1) / 2 bytes, entry i in the low nibble of byte i / 2
+ *           when i is even, in the high nibble when it is odd
+ *
+ * Opening only maps the files; pages are read in as lookups touch them and
+ * are shared with every other process mapping the same files.
+ */
+public final class PatternDatabase {
+    static final int MAGIC = 0x53504431;   // "SPD1"
+    static final int VERSION = 1;
+    /** Directory SlidingGame reads databases from unless -Dsliding.pdb is set. */
+    public static final String DEFAULT_DIR = "pdb";
+
+    private final int n;
+    private final int[][] tiles;           // [pattern] tiles in ranking order
+    private final MappedByteBuffer[] maps;
+    private final int[] offsets;           // [pattern] first entry byte in the mapping
+    private final int[] patternOf;         // [tile] pattern index, -1 = none
+
+    private PatternDatabase(int n, int[][] tiles, MappedByteBuffer[] maps, int[] offsets) throws IOException {
+        this.n = n;
+        this.tiles = tiles;
+        this.maps = maps;
+        this.offsets = offsets;
+        patternOf = new int[n * n];
+        Arrays.fill(patternOf, -1);
+        for (int p = 0; p < tiles.length; p++) {
+            for (int t : tiles[p]) {
+                if (patternOf[t] >= 0) throw new IOException("Tile " + t + " is in two patterns");
+                patternOf[t] = p;
+            }
+        }
+    }
+
+    /** @return file name of a pattern (the first tile names it) */
+    static String fileName(int n, int firstTile) {
+        return "puzzle" + n + "-" + firstTile + ".pdb";
+    }
+
+    /**
+     * Map every pattern file for N x N boards in dir (channels are closed
+     * again; the mappings stay valid).
+     * @return the databases, or null if dir has none for this size
+     * @throws IOException if a file is damaged or two patterns share a tile
+     */
+    public static PatternDatabase open(Path dir, int n) throws IOException {
+        if (!Files.isDirectory(dir)) return null;
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "puzzle" + n + "-*.pdb")) {
+            for (Path f : ds) files.add(f);
+        }
+        if (files.isEmpty()) return null;
+        files.sort(null);
+        int[][] tiles = new int[files.size()][];
+        MappedByteBuffer[] maps = new MappedByteBuffer[files.size()];
+        int[] offsets = new int[files.size()];
+        for (int p = 0; p < files.size(); p++) {
+            try (FileChannel ch = FileChannel.open(files.get(p), StandardOpenOption.READ)) {
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                if (map.capacity() < 24 || map.getInt(0) != MAGIC || map.getInt(4) != VERSION || map.getInt(8) != n) {
+                    throw new IOException("Not a pattern database for " + n + "x" + n + ": " + files.get(p));
+                }
+                int k = map.getInt(12);
+                long entries = map.getLong(16);
+                if (k < 1 || k >= n * n || entries != placements(n * n, k)
+                        || map.capacity() < 24 + 4L * k + (entries + 1) / 2) {
+                    throw new IOException("Truncated pattern database: " + files.get(p));
+                }
+                tiles[p] = new int[k];
+                for (int i = 0; i < k; i++) tiles[p][i] = map.getInt(24 + 4 * i);
+                maps[p] = map;
+                offsets[p] = 24 + 4 * k;
+            }
+        }
+        return new PatternDatabase(n, tiles, maps, offsets);
+    }
+
+    /** @return board side the databases were built for */
+    public int size() {
+        return n;
+    }
+
+    public int patternCount() {
+        return tiles.length;
+    }
+
+    /** @return tiles of pattern p */
+    public int[] tiles(int p) {
+        return tiles[p].clone();
+    }
+
+    /** @return pattern index of tile, -1 if it is in none */
+    int patternOf(int tile) {
+        return patternOf[tile];
+    }
+
+    /**
+     * @param where [tile] cell of each tile (row-major)
+     * @return moves of pattern p's tiles needed to bring them home
+     */
+    int value(int p, byte[] where) {
+        int[] ts = tiles[p];
+        int cells = n * n, manhattan = 0;
+        long index = 0, used = 0;
+        for (int i = 0; i < ts.length; i++) {
+            int t = ts[i], cell = where[t];
+            index = index * (cells - i) + cell - Long.bitCount(used & ((1L << cell) - 1));
+            used |= 1L << cell;
+            manhattan += Math.abs(cell / n - (t - 1) / n) + Math.abs(cell % n - (t - 1) % n);
+        }
+        int b = maps[p].get(offsets[p] + (int) (index >>> 1));
+        return manhattan + 2 * ((index & 1) == 0 ? b & 15 : b >>> 4 & 15);
+    }
+
+    /** @return number of placements of k tiles on cells cells */
+    static long placements(int cells, int k) {
+        long r = 1;
+        for (int i = 0; i < k; i++) r *= cells - i;
+        return r;
+    }
+
+    /** Write one pattern file; entries holds the packed nibbles in its first (count + 1) / 2 bytes. */
+    static void write(Path file, int n, int[] tiles, byte[] entries, long count) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(24 + 4 * tiles.length).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(tiles.length).putLong(count);
+        for (int t : tiles) header.putInt(t);
+        header.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) ch.write(header);
+            ByteBuffer data = ByteBuffer.wrap(entries, 0, (int) ((count + 1) / 2));
+            while (data.hasRemaining()) ch.write(data);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package zyjfassignment.boardgames.sliding;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Offline builder for PatternDatabase files.
+ *
+ * Each pattern is built by a breadth-first pass backward from the solved
+ * position. A search state is a placement of the pattern tiles plus the
+ * region of free cells holding the blank (all blank positions in one region
+ * are a single state, named by its lowest cell), and a step moves a pattern
+ * tile next to the region into it. States take two bits each (open, frontier,
+ * next layer, closed) in an AtomicLongArray indexed by placement rank times
+ * the free cell count plus the blank's rank among the free cells, so a
+ * pattern may have fewer than 2^36 such states (8 tiles on 4x4: 4,151,347,200
+ * in 1 GB). A layer is expanded in parallel: the words are split into chunks
+ * that workers scan for frontier states, marking open neighbours with a
+ * compare-and-set. The first layer that reaches a placement is its value,
+ * kept in one byte per placement; the values are then turned into nibbles in
+ * the same array and written out. The 7-8 partition needs about 2 GB of heap.
+ *
+ * A partition is either group sizes taken in tile order ("7-8": tiles 1-7
+ * and 8-15) or explicit tile lists ("1,2,5,6/3,4,7,8"). Defaults: 4-4 for
+ * 3x3, 7-8 for 4x4, and for 5x5 four 6-tile blocks (top-left, top-right,
+ * bottom-left, bottom-right). Existing files for the size are replaced.
+ *
+ * Run: java -Xmx3g -cp out zyjfassignment.boardgames.sliding.PatternDatabaseBuilder
+ *          [N=4] [partition] [dir=pdb] [threads=processors]
+ */
+public class PatternDatabaseBuilder {
+    private static final byte UNSEEN = -1;
+    private static final int CHUNKS_PER_THREAD = 16;
+
+    private final int n, cells;
+    private final long board, notFirstColumn, notLastColumn;
+    private final long[] neighbours;     // [cell] adjacent cells
+    private final ForkJoinPool pool;
+    private final int threads;
+
+    public PatternDatabaseBuilder(int n, int threads) {
+        if (n < 2 || n > 7) throw new IllegalArgumentException("Board size must be 2..7: " + n);
+        this.n = n;
+        this.cells = n * n;
+        this.threads = Math.max(1, threads);
+        this.pool = new ForkJoinPool(this.threads);
+        long first = 0, last = 0;
+        for (int r = 0; r < n; r++) {
+            first |= 1L << r * n;
+            last |= 1L << r * n + n - 1;
+        }
+        board = (1L << cells) - 1;
+        notFirstColumn = board & ~first;
+        notLastColumn = board & ~last;
+        neighbours = new long[cells];
+        for (int c = 0; c < cells; c++) {
+            long b = 1L << c;
+            neighbours[c] = ((b << n) | (b >>> n) | (b << 1 & notFirstColumn) | (b >>> 1 & notLastColumn)) & board;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        String partition = args.length > 1 ? args[1] : defaultPartition(n);
+        Path dir = Paths.get(args.length > 2 ? args[2] : PatternDatabase.DEFAULT_DIR);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        int[][] patterns = parse(n, partition);
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> old = Files.newDirectoryStream(dir, "puzzle" + n + "-*.pdb")) {
+            for (Path f : old) Files.delete(f);
+        }
+        PatternDatabaseBuilder builder = new PatternDatabaseBuilder(n, threads);
+        long totalStart = System.nanoTime(), totalBytes = 0;
+        for (int[] tiles : patterns) {
+            long start = System.nanoTime();
+            long count = PatternDatabase.placements(n * n, tiles.length);
+            byte[] table = builder.build(tiles);
+            int maxDepth = builder.lastDepth;
+            builder.pack(tiles, table, count);
+            Path file = dir.resolve(PatternDatabase.fileName(n, tiles[0]));
+            PatternDatabase.write(file, n, tiles, table, count);
+            long bytes = Files.size(file);
+            totalBytes += bytes;
+            System.out.printf("%-40s %,14d entries %,14d bytes  max %2d moves  %8.1f s%n",
+                    file.getFileName() + " " + java.util.Arrays.toString(tiles), count, bytes, maxDepth,
+                    (System.nanoTime() - start) / 1e9);
+        }
+        builder.pool.shutdown();
+        System.out.printf("%dx%d partition %s: %,d bytes in %.1f s with %d threads%n",
+                n, n, partition, totalBytes, (System.nanoTime() - totalStart) / 1e9, threads);
+    }
+
+    /** @return default partition for N x N boards */
+    static String defaultPartition(int n) {
+        if (n == 3) return "4-4";
+        if (n == 4) return "7-8";
+        if (n == 5) return "1,2,3,6,7,8/4,5,9,10,14,15/11,12,16,17,21,22/13,18,19,20,23,24";
+        StringBuilder sb = new StringBuilder();
+        for (int left = n * n - 1; left > 0; left -= 6) sb.append(sb.length() == 0 ? "" : "-").append(Math.min(6, left));
+        return sb.toString();
+    }
+
+    /** @return tiles of each pattern */
+    static int[][] parse(int n, String partition) {
+        List<int[]> out = new ArrayList<>();
+        if (partition.contains(",") || partition.contains("/")) {
+            for (String group : partition.split("/")) {
+                String[] parts = group.split(",");
+                int[] tiles = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) tiles[i] = Integer.parseInt(parts[i].trim());
+                out.add(tiles);
+            }
+        } else {
+            int next = 1;
+            for (String size : partition.split("-")) {
+                int[] tiles = new int[Integer.parseInt(size.trim())];
+                for (int i = 0; i < tiles.length; i++) tiles[i] = next++;
+                out.add(tiles);
+            }
+        }
+        boolean[] seen = new boolean[n * n];
+        for (int[] tiles : out) {
+            if (tiles.length == 0) throw new IllegalArgumentException("empty pattern in " + partition);
+            for (int t : tiles) {
+                if (t < 1 || t >= n * n || seen[t]) throw new IllegalArgumentException("bad tile " + t + " in " + partition);
+                seen[t] = true;
+            }
+        }
+        return out.toArray(new int[0][]);
+    }
+
+    /* ---------------- breadth-first pass ---------------- */
+
+    // search state codes, two bits per (placement, blank region)
+    private static final int OPEN = 0, FRONTIER = 1, NEXT = 2;
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    private int lastDepth;
+
+    /** @return depth (pattern moves from home) of every placement, indexed by rank */
+    byte[] build(int[] tiles) {
+        int k = tiles.length, free = cells - k;
+        long count = PatternDatabase.placements(cells, k), words = (count * free + 31) / 32;
+        if (count > Integer.MAX_VALUE - 8 || words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("pattern too large: " + count + " placements");
+        }
+        byte[] depth = new byte[(int) count];
+        java.util.Arrays.fill(depth, UNSEEN);
+        AtomicLongArray state = new AtomicLongArray((int) words);
+        int[] home = new int[k];
+        long occupied = 0;
+        for (int i = 0; i < k; i++) {
+            home[i] = tiles[i] - 1;
+            occupied |= 1L << home[i];
+        }
+        long start = rank(home);
+        int blank = Long.numberOfTrailingZeros(region(cells - 1, occupied));
+        mark(state, start * free + freeRank(blank, occupied), FRONTIER);
+        depth[(int) start] = 0;
+        int d = 0;
+        while (true) {
+            if (d == Byte.MAX_VALUE - 1) throw new IllegalStateException("pattern deeper than " + d + " moves");
+            final byte next = (byte) (d + 1);
+            long added = 0;
+            for (long part : runChunks(words, (lo, hi) -> expand(k, state, depth, next, lo, hi))) added += part;
+            if (added == 0) break;
+            runChunks(words, (lo, hi) -> advance(state, lo, hi));
+            d++;
+        }
+        lastDepth = d;
+        return depth;
+    }
+
+    /**
+     * Expand the frontier states in words [lo, hi): every pattern tile next to
+     * the blank region may step into it, leaving the blank where it was.
+     * @return states newly marked for the next layer
+     */
+    private long expand(int k, AtomicLongArray state, byte[] depth, byte next, int lo, int hi) {
+        int free = cells - k;
+        int[] pos = new int[k];
+        long added = 0;
+        for (int w = lo; w < hi; w++) {
+            long word = state.get(w);
+            long frontier = word & ~(word >>> 1) & LOW_BITS;
+            while (frontier != 0) {
+                long index = 32L * w + (Long.numberOfTrailingZeros(frontier) >>> 1);
+                frontier &= frontier - 1;
+                unrank(index / free, pos);
+                long occupied = 0;
+                for (int p : pos) occupied |= 1L << p;
+                long blank = region(freeCell((int) (index % free), occupied), occupied);
+                for (int j = 0; j < k; j++) {
+                    int from = pos[j];
+                    for (long to = neighbours[from] & blank; to != 0; to &= to - 1) {
+                        int cell = Long.numberOfTrailingZeros(to);
+                        long moved = occupied ^ 1L << from ^ 1L << cell;
+                        pos[j] = cell;
+                        long placement = rank(pos);
+                        pos[j] = from;
+                        int rep = Long.numberOfTrailingZeros(region(from, moved));
+                        if (mark(state, placement * free + freeRank(rep, moved), NEXT)) {
+                            added++;
+                            if (depth[(int) placement] == UNSEEN) depth[(int) placement] = next;
+                        }
+                    }
+                }
+            }
+        }
+        return added;
+    }
+
+    /** Close the frontier and make the next layer the frontier in words [lo, hi). */
+    private static long advance(AtomicLongArray state, int lo, int hi) {
+        for (int w = lo; w < hi; w++) {
+            long word = state.get(w), low = word & LOW_BITS, high = word >>> 1 & LOW_BITS;
+            state.set(w, low | high | low << 1);   // frontier -> closed, next -> frontier
+        }
+        return 0L;
+    }
+
+    /** Set an open state to code. @return whether it was open */
+    private static boolean mark(AtomicLongArray state, long index, int code) {
+        int w = (int) (index >>> 5), shift = (int) (index & 31) * 2;
+        while (true) {
+            long word = state.get(w);
+            if ((word >>> shift & 3) != OPEN) return false;
+            if (state.compareAndSet(w, word, word | (long) code << shift)) return true;
+        }
+    }
+
+    /** @return cells reachable from cell without crossing occupied ones */
+    private long region(int cell, long occupied) {
+        long open = board & ~occupied, r = 1L << cell, grown;
+        while ((grown = (r | (r << n) | (r >>> n) | (r << 1 & notFirstColumn) | (r >>> 1 & notLastColumn)) & open) != r) {
+            r = grown;
+        }
+        return r;
+    }
+
+    /** @return rank of cell among the cells occupied leaves free */
+    private static int freeRank(int cell, long occupied) {
+        return cell - Long.bitCount(occupied & ((1L << cell) - 1));
+    }
+
+    /** Inverse of freeRank. */
+    private int freeCell(int rank, long occupied) {
+        long open = board & ~occupied;
+        for (int i = 0; i < rank; i++) open &= open - 1;
+        return Long.numberOfTrailingZeros(open);
+    }
+
+    /**
+     * Replace depths by (depth - Manhattan) / 2, capped at 15 (0 for placements
+     * never reached), then pack two per byte into the front of the array.
+     */
+    void pack(int[] tiles, byte[] table, long count) {
+        runChunks(count, (lo, hi) -> {
+            int[] pos = new int[tiles.length];
+            for (int i = lo; i < hi; i++) {
+                if (table[i] == UNSEEN) {
+                    table[i] = 0;
+                    continue;
+                }
+                unrank(i, pos);
+                int manhattan = 0;
+                for (int j = 0; j < pos.length; j++) {
+                    int home = tiles[j] - 1;
+                    manhattan += Math.abs(pos[j] / n - home / n) + Math.abs(pos[j] % n - home % n);
+                }
+                table[i] = (byte) Math.min(15, (table[i] - manhattan) / 2);
+            }
+            return 0L;
+        });
+        for (long i = 0; i < count; i += 2) {   // byte i / 2 is written after entries i and i + 1 are read
+            int lowNibble = table[(int) i] & 15, highNibble = i + 1 < count ? table[(int) i + 1] : 0;
+            table[(int) (i >>> 1)] = (byte) (lowNibble | highNibble << 4);
+        }
+    }
+
+    /* ---------------- ranking ---------------- */
+
+    /** @return rank of a placement (cells in tile order) */
+    long rank(int[] pos) {
+        long index = 0, used = 0;
+        for (int i = 0; i < pos.length; i++) {
+            int cell = pos[i];
+            index = index * (cells - i) + cell - Long.bitCount(used & ((1L << cell) - 1));
+            used |= 1L << cell;
+        }
+        return index;
+    }
+
+    /** Inverse of rank. */
+    void unrank(long index, int[] pos) {
+        int k = pos.length;
+        for (int i = k - 1; i >= 0; i--) {   // digits, least significant last
+            pos[i] = (int) (index % (cells - i));
+            index /= cells - i;
+        }
+        long used = 0;
+        for (int i = 0; i < k; i++) {        // digit = rank among the still free cells
+            int skip = pos[i], cell = 0;
+            while (true) {
+                if ((used & 1L << cell) == 0 && skip-- == 0) break;
+                cell++;
+            }
+            pos[i] = cell;
+            used |= 1L << cell;
+        }
+    }
+
+    /* ---------------- parallel chunks ---------------- */
+
+    private interface Chunk {
+        long run(int lo, int hi);
+    }
+
+    /** Run task over [0, count) split into chunks on the pool. @return each chunk's result */
+    private long[] runChunks(long count, Chunk task) {
+        int chunks = (int) Math.min(count, (long) threads * CHUNKS_PER_THREAD);
+        List<Callable<Long>> jobs = new ArrayList<>();
+        for (int c = 0; c < chunks; c++) {
+            int lo = (int) (count * c / chunks), hi = (int) (count * (c + 1) / chunks);
+            jobs.add(() -> task.run(lo, hi));
+        }
+        long[] out = new long[chunks];
+        int c = 0;
+        for (Future<Long> f : pool.invokeAll(jobs)) {
+            try {
+                out[c++] = f.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("pattern database worker failed", e);
+            }
+        }
+        return out;
+    }
+}
@@ -39,6 +39,18 @@ public class SlidingBoard {
     public int rows() { return N; }
     public int cols() { return N; }
 
+    /** @return tile at (r, c), 0 = blank */
+    public int tileAt(int r, int c) { return a[r][c]; }
+
+    /** if the solved position can be reached from here */
+    public boolean isSolvable() {
+        int[] flat = new int[N * N];
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) flat[i * N + j] = a[i][j];
+        }
+        return isPermutationSolvable(flat);
+    }
+
     /** print board */
     public void print() {
         int max = N * N - 1;
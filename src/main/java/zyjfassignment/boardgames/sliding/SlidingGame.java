@@ -2,15 +2,23 @@ package zyjfassignment.boardgames.sliding;
 
 import zyjfassignment.boardgames.core.GameEngine;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Random;
 import java.util.Scanner;
 
 /**
  * - Opening questions: board size N, scramble method, and number of moves
- * - Operations: w/a/s/d or enter a tile number, r to re-scramble, q to quit
+ * - Operations: w/a/s/d or enter a tile number, h for a hint, r to re-scramble, q to quit
  */
 public class SlidingGame implements GameEngine {
+    private static final long HINT_MILLIS = 5000;
+    /** Pattern database directory (see PatternDatabaseBuilder); override with -Dsliding.pdb=... */
+    private static final String PDB_DIR = System.getProperty("sliding.pdb", PatternDatabase.DEFAULT_DIR);
+
     private SlidingBoard board;
+    private SlidingSolver solver;          // made on the first hint for a board size
+    private int solverSize;
 
     public SlidingGame(SlidingBoard board) {
         if (board == null) throw new IllegalArgumentException("board == null");
@@ -43,12 +51,16 @@ public class SlidingGame implements GameEngine {
                 return;
             }
 
-            System.out.print("\nEnter command [w/a/s/d or number], r=re-shuffle, q=quit > ");
+            System.out.print("\nEnter command [w/a/s/d or number], h=hint, r=re-shuffle, q=quit > ");
             String s = in.nextLine().trim();
             if (s.equalsIgnoreCase("q")) {
                 System.out.println("Bye!");
                 return;
             }
+            if (s.equalsIgnoreCase("h")) {
+                showHint();
+                continue;
+            }
             if (s.equalsIgnoreCase("r")) {
                 askAndShuffle(in, rnd);
                 System.out.println("\nThe situation after reshuffling:");
@@ -87,6 +99,56 @@ public class SlidingGame implements GameEngine {
         }
     }
 
+    /* ============= hint ============= */
+
+    /** First move of an optimal solution (IDA*), with the number of moves left. */
+    private void showHint() {
+        if (board.rows() > SlidingSolver.MAX_SIZE) {
+            System.out.println("No hint for this size: the solver handles boards up to "
+                    + SlidingSolver.MAX_SIZE + "x" + SlidingSolver.MAX_SIZE + ".");
+            return;
+        }
+        if (solver == null || solverSize != board.rows()) {
+            solver = new SlidingSolver(openPatterns());
+            solverSize = board.rows();
+        }
+        String solution = solver.solve(board, HINT_MILLIS);
+        if (solution == null) {
+            System.out.println("No hint: no optimal solution found within " + HINT_MILLIS / 1000 + " s.");
+            return;
+        }
+        char key = solution.charAt(0);
+        System.out.printf("Hint: %c (slide tile %d), %d moves to solve  [%,d nodes, %.3f s]%n",
+                key, tileMovedBy(key), solution.length(), solver.lastNodes(), solver.lastNanos() / 1e9);
+    }
+
+    /** @return the pattern databases for this board size, or null if there are none */
+    private PatternDatabase openPatterns() {
+        try {
+            PatternDatabase db = PatternDatabase.open(Paths.get(PDB_DIR), board.rows());
+            if (db != null) System.out.println("Pattern databases: " + db.patternCount() + " patterns from " + PDB_DIR);
+            return db;
+        } catch (IOException e) {
+            System.out.println("Pattern databases ignored: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** @return tile that blank move key would slide */
+    private int tileMovedBy(char key) {
+        int n = board.rows();
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                if (board.tileAt(r, c) != 0) continue;
+                if (key == 'w') return board.tileAt(r - 1, c);
+                if (key == 's') return board.tileAt(r + 1, c);
+                if (key == 'a') return board.tileAt(r, c - 1);
+                return board.tileAt(r, c + 1);
+            }
+        }
+        return 0;
+    }
+
     /* ============= helper ============= */
 
     private static int readOptionalInt(Scanner in, int def) {
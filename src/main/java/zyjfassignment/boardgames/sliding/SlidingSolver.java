@@ -0,0 +1,338 @@
+package zyjfassignment.boardgames.sliding;
+
+/**
+ * Optimal Sliding Puzzle solver: IDA* with Manhattan distance plus linear
+ * conflicts, or with additive pattern databases when some are given for the
+ * board size (then the larger of the two bounds is used).
+ *
+ * The position is packed into one byte per cell (row-major, 0 = blank) with
+ * the blank's index. A move swaps the blank with a neighbour in place and is
+ * undone by the opposite move, so the search allocates nothing. Both
+ * heuristic parts are kept incrementally: the Manhattan sum changes by the
+ * moved tile's table entry, and only the two lines the tile crosses (two rows
+ * for a vertical move, two columns for a horizontal one) change conflicts.
+ * A line's conflict count is the number of its home tiles that must leave
+ * the line to let the rest reach their goals in order (tiles minus the
+ * longest increasing run of goal positions); each costs two extra moves.
+ * Up to 6x6 every line is also kept as a key (3 bits per cell: the goal
+ * position + 1 of a home tile, else 0) and its count is a table lookup;
+ * larger boards rescan the two lines. A pattern database value changes only
+ * for the pattern of the moved tile, which is looked up again.
+ *
+ * Moves are blank directions as SlidingBoard.move(char) takes them:
+ * w = up, s = down, a = left, d = right. Instances keep scratch buffers and
+ * are not thread safe. Tiles and cells are stored as bytes, so boards up to
+ * MAX_SIZE x MAX_SIZE (11x11) are supported; larger ones are rejected.
+ */
+public class SlidingSolver {
+    private static final char[] KEYS = {'w', 's', 'a', 'd'};
+    private static final int FOUND = -1;
+    private static final int STOPPED = -2;
+    private static final int MAX_TABLE_SIZE = 6;
+    /** Largest board side the solver takes (every tile number must fit in a byte). */
+    public static final int MAX_SIZE = 11;
+
+    private int n, size;
+    private byte[] cell = new byte[0];     // [cell] tile, 0 = blank
+    private int blank;
+    private int[] neighbour = new int[0];  // [cell * 4 + dir] cell the blank moves to, -1 = off the board
+    private int[] distance = new int[0];   // [tile * size + cell] Manhattan distance to the tile's goal
+    private int[] rowConflicts = new int[0], colConflicts = new int[0];
+    private int manhattan, conflicts;
+    private int[] line = new int[0], run = new int[0];
+    private byte[] lineTable;              // [line key] conflicts, null = rescan (boards above MAX_TABLE_SIZE)
+    private int[] homeRow = new int[0], homeCol = new int[0];   // [tile]
+    private int[] rowKey = new int[0], colKey = new int[0];
+    private byte[] path = new byte[0];
+
+    private final PatternDatabase patterns;   // null = none
+    private boolean usePatterns;              // patterns match the current board size
+    private byte[] where = new byte[0];       // [tile] cell
+    private int[] patternValue = new int[0];  // [pattern]
+    private int patternSum;
+
+    private long deadline;
+    private long nodes, lastNodes, lastNanos;
+
+    public SlidingSolver() {
+        this(null);
+    }
+
+    /** @param patterns pattern databases, used for boards of their size (null = none) */
+    public SlidingSolver(PatternDatabase patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * Solve the board optimally, without a time limit. The board is not changed.
+     * @return blank moves (w/a/s/d) of a shortest solution, "" if already solved
+     * @throws IllegalArgumentException if the position cannot be solved or the board is larger than MAX_SIZE
+     */
+    public String solve(SlidingBoard board) {
+        return solve(board, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param millis wall-clock budget
+     * @return blank moves of a shortest solution, or null if the budget ran out first
+     * @throws IllegalArgumentException if the position cannot be solved or the board is larger than MAX_SIZE
+     */
+    public String solve(SlidingBoard board, long millis) {
+        checkSize(board);
+        if (!board.isSolvable()) throw new IllegalArgumentException("unsolvable position");
+        load(board);
+        long start = System.nanoTime();
+        deadline = millis >= Long.MAX_VALUE / 1_000_000L ? Long.MAX_VALUE : start + millis * 1_000_000L;
+        nodes = 0;
+        int bound = heuristic();
+        int length = -1;
+        while (length < 0) {
+            if (path.length < bound + 1) path = new byte[2 * bound + 2];
+            int t = search(0, bound, -1);
+            if (t == STOPPED) break;
+            if (t == FOUND) length = bound;
+            else bound = t;
+        }
+        lastNodes = nodes;
+        lastNanos = System.nanoTime() - start;
+        if (length < 0) return null;
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sb.append(KEYS[path[i]]);
+        return sb.toString();
+    }
+
+    /**
+     * @return the search's lower bound on the board's solution length
+     * @throws IllegalArgumentException if the board is larger than MAX_SIZE
+     */
+    public int heuristic(SlidingBoard board) {
+        checkSize(board);
+        load(board);
+        return heuristic();
+    }
+
+    /** @return nodes expanded by the last solve */
+    public long lastNodes() {
+        return lastNodes;
+    }
+
+    /** @return wall-clock nanoseconds of the last solve */
+    public long lastNanos() {
+        return lastNanos;
+    }
+
+    public double lastNodesPerSecond() {
+        return lastNanos == 0 ? 0 : lastNodes / (lastNanos / 1e9);
+    }
+
+    /* ---------------- search ---------------- */
+
+    /**
+     * Expand a node with g + h within bound; children over the bound are
+     * scored without a call.
+     * @return FOUND, STOPPED, or the smallest f above bound
+     */
+    private int search(int g, int bound, int lastDir) {
+        if (heuristic() == 0) return FOUND;
+        if ((++nodes & 0xFFFF) == 0 && System.nanoTime() > deadline) return STOPPED;
+        int min = Integer.MAX_VALUE;
+        for (int dir = 0; dir < 4; dir++) {
+            if (dir == (lastDir ^ 1)) continue;   // never undo the previous move
+            int to = neighbour[blank * 4 + dir];
+            if (to < 0) continue;
+            int from = blank;
+            slide(from, to, dir < 2);
+            int f = g + 1 + heuristic();
+            int t = f;
+            if (f <= bound) {
+                path[g] = (byte) dir;
+                t = search(g + 1, bound, dir);
+            }
+            slide(to, from, dir < 2);
+            if (t == FOUND || t == STOPPED) return t;
+            if (t < min) min = t;
+        }
+        return min;
+    }
+
+    /** Move the blank from from to the neighbouring cell to (the tile there goes the other way). */
+    private void slide(int from, int to, boolean vertical) {
+        int tile = cell[to];
+        cell[from] = (byte) tile;
+        cell[to] = 0;
+        blank = to;
+        manhattan += distance[tile * size + from] - distance[tile * size + to];
+        if (usePatterns) {
+            where[tile] = (byte) from;
+            int p = patterns.patternOf(tile);
+            if (p >= 0) {
+                int v = patterns.value(p, where);
+                patternSum += v - patternValue[p];
+                patternValue[p] = v;
+            }
+        }
+        if (lineTable != null) {
+            if (vertical) crossLine(rowKey, colKey, homeRow[tile], homeCol[tile], from / n, to / n, to % n);
+            else crossLine(colKey, rowKey, homeCol[tile], homeRow[tile], from % n, to % n, to / n);
+        } else if (vertical) {
+            int a = from / n, b = to / n;
+            conflicts -= rowConflicts[a] + rowConflicts[b];
+            rowConflicts[a] = rowConflicts(a);
+            rowConflicts[b] = rowConflicts(b);
+            conflicts += rowConflicts[a] + rowConflicts[b];
+        } else {
+            int a = from % n, b = to % n;
+            conflicts -= colConflicts[a] + colConflicts[b];
+            colConflicts[a] = colConflicts(a);
+            colConflicts[b] = colConflicts(b);
+            conflicts += colConflicts[a] + colConflicts[b];
+        }
+    }
+
+    /**
+     * Table upkeep for a tile that leaves line b of one direction for line a
+     * at place at; along its own line of the other direction it moves from
+     * place b to place a, which keeps the order there.
+     */
+    private void crossLine(int[] cross, int[] along, int home, int homeAlong, int a, int b, int at) {
+        if (home == a || home == b) {
+            int keyA = cross[a], keyB = cross[b];
+            if (home == a) cross[a] = keyA | (homeAlong + 1) << 3 * at;
+            else cross[b] = keyB & ~(7 << 3 * at);
+            conflicts += lineTable[cross[a]] + lineTable[cross[b]] - lineTable[keyA] - lineTable[keyB];
+        }
+        if (homeAlong == at) along[at] += (home + 1 << 3 * a) - (home + 1 << 3 * b);
+    }
+
+    private int heuristic() {
+        int h = manhattan + 2 * conflicts;
+        return usePatterns && patternSum > h ? patternSum : h;
+    }
+
+    /* ---------------- linear conflicts ---------------- */
+
+    /** Home tiles of row r that must leave it. */
+    private int rowConflicts(int r) {
+        int k = 0;
+        for (int c = 0; c < n; c++) {
+            int tile = cell[r * n + c];
+            if (tile != 0 && homeRow[tile] == r) line[k++] = homeCol[tile];
+        }
+        return k - longestIncreasing(k);
+    }
+
+    /** Home tiles of column c that must leave it. */
+    private int colConflicts(int c) {
+        int k = 0;
+        for (int r = 0; r < n; r++) {
+            int tile = cell[r * n + c];
+            if (tile != 0 && homeCol[tile] == c) line[k++] = homeRow[tile];
+        }
+        return k - longestIncreasing(k);
+    }
+
+    /** Longest strictly increasing subsequence of line[0 .. k). */
+    private int longestIncreasing(int k) {
+        if (k <= 1) return k;
+        int best = 0;
+        for (int i = 0; i < k; i++) {
+            int len = 1;
+            for (int j = 0; j < i; j++) if (line[j] < line[i] && run[j] + 1 > len) len = run[j] + 1;
+            run[i] = len;
+            if (len > best) best = len;
+        }
+        return best;
+    }
+
+    /* ---------------- setup ---------------- */
+
+    private static void checkSize(SlidingBoard board) {
+        if (board.rows() > MAX_SIZE) {
+            throw new IllegalArgumentException("board larger than " + MAX_SIZE + "x" + MAX_SIZE + ": " + board.rows());
+        }
+    }
+
+    private void load(SlidingBoard board) {
+        if (board.rows() != n) prepare(board.rows());
+        manhattan = 0;
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int tile = board.tileAt(r, c);
+                cell[r * n + c] = (byte) tile;
+                if (tile == 0) blank = r * n + c;
+                else manhattan += distance[tile * size + r * n + c];
+                where[tile] = (byte) (r * n + c);
+            }
+        }
+        usePatterns = patterns != null && patterns.size() == n;
+        if (usePatterns) {
+            if (patternValue.length < patterns.patternCount()) patternValue = new int[patterns.patternCount()];
+            patternSum = 0;
+            for (int p = 0; p < patterns.patternCount(); p++) {
+                patternValue[p] = patterns.value(p, where);
+                patternSum += patternValue[p];
+            }
+        }
+        conflicts = 0;
+        for (int i = 0; i < n; i++) {
+            rowConflicts[i] = rowConflicts(i);
+            colConflicts[i] = colConflicts(i);
+            conflicts += rowConflicts[i] + colConflicts[i];
+            rowKey[i] = colKey[i] = 0;
+        }
+        if (lineTable == null) return;
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int tile = cell[r * n + c];
+                if (tile == 0) continue;
+                if (homeRow[tile] == r) rowKey[r] |= homeCol[tile] + 1 << 3 * c;
+                if (homeCol[tile] == c) colKey[c] |= homeRow[tile] + 1 << 3 * r;
+            }
+        }
+    }
+
+    private void prepare(int n) {
+        this.n = n;
+        size = n * n;
+        cell = new byte[size];
+        where = new byte[size];
+        neighbour = new int[4 * size];
+        distance = new int[size * size];
+        rowConflicts = new int[n];
+        colConflicts = new int[n];
+        line = new int[n];
+        run = new int[n];
+        rowKey = new int[n];
+        colKey = new int[n];
+        homeRow = new int[size];
+        homeCol = new int[size];
+        int[] dr = {-1, 1, 0, 0};
+        int[] dc = {0, 0, -1, 1};
+        for (int p = 0; p < size; p++) {
+            int r = p / n, c = p % n;
+            for (int d = 0; d < 4; d++) {
+                int nr = r + dr[d], nc = c + dc[d];
+                neighbour[p * 4 + d] = 0 <= nr && nr < n && 0 <= nc && nc < n ? nr * n + nc : -1;
+            }
+        }
+        for (int tile = 1; tile < size; tile++) {
+            int gr = homeRow[tile] = (tile - 1) / n, gc = homeCol[tile] = (tile - 1) % n;
+            for (int p = 0; p < size; p++) distance[tile * size + p] = Math.abs(p / n - gr) + Math.abs(p % n - gc);
+        }
+        lineTable = n <= MAX_TABLE_SIZE ? new byte[1 << 3 * n] : null;
+        if (lineTable == null) return;
+        for (int key = 0; key < lineTable.length; key++) {
+            int k = 0;
+            for (int place = 0; place < n; place++) {
+                int code = key >>> 3 * place & 7;
+                if (code == 0) continue;
+                if (code > n) {   // not a key any line can have
+                    k = -1;
+                    break;
+                }
+                line[k++] = code - 1;
+            }
+            if (k > 0) lineTable[key] = (byte) (k - longestIncreasing(k));
+        }
+    }
+}